@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark;
+
+import com.reactify.benchmark.baseline.LegacyCacheMonoAspect;
+import com.reactify.benchmark.sample.SampleCacheService;
+import com.reactify.cache.CacheAspect;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * <p>
+ * Measures the cost of a {@code @LocalCache} hit through a Spring AOP proxy,
+ * comparing the {@code reactor-extra} {@code CacheMono} advice the library used
+ * to ship ({@link LegacyCacheMonoAspect}) against the current
+ * {@link CacheAspect} built on Caffeine {@code AsyncCache}.
+ * </p>
+ *
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar CacheAspectBenchmark -prof gc}
+ * to report hit-path allocations ({@code gc.alloc.rate.norm}) next to the
+ * latency.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CacheAspectBenchmark {
+
+    private static final String KEY = "catalog";
+
+    private SampleCacheService cacheMonoService;
+    private SampleCacheService asyncCacheService;
+
+    /**
+     * Constructs a new instance of {@code CacheAspectBenchmark}.
+     */
+    public CacheAspectBenchmark() {}
+
+    /**
+     * <p>
+     * Creates one proxy per aspect and warms both caches with {@link #KEY}.
+     * </p>
+     */
+    @Setup
+    public void setup() {
+        cacheMonoService = proxy(new LegacyCacheMonoAspect());
+        asyncCacheService = proxy(new CacheAspect());
+        cacheMonoService.findConfig(KEY).block();
+        asyncCacheService.findConfig(KEY).block();
+    }
+
+    private static SampleCacheService proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleCacheService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    /**
+     * <p>
+     * Cache hit through the legacy {@code CacheMono} advice.
+     * </p>
+     *
+     * @return the cached value.
+     */
+    @Benchmark
+    public String cacheMonoHit() {
+        return cacheMonoService.findConfig(KEY).block();
+    }
+
+    /**
+     * <p>
+     * Cache hit through the current {@code AsyncCache} advice.
+     * </p>
+     *
+     * @return the cached value.
+     */
+    @Benchmark
+    public String asyncCacheHit() {
+        return asyncCacheService.findConfig(KEY).block();
+    }
+}
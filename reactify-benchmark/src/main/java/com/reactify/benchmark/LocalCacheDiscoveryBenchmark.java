@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark;
+
+import com.reactify.cache.LocalCache;
+import com.reactify.cache.LocalCacheIndex;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+
+/**
+ * <p>
+ * Compares the startup cost of discovering {@link LocalCache} methods from the
+ * compile-time {@link LocalCacheIndex} against the Reflections package scan
+ * used as a fallback by {@code CacheStore}.
+ * </p>
+ *
+ * <p>
+ * Each measurement runs in a fresh fork as a single shot, so class loading and
+ * classpath traversal are paid the same way they are at application startup.
+ * Run with {@code java -jar target/benchmarks.jar LocalCacheDiscoveryBenchmark}.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class LocalCacheDiscoveryBenchmark {
+
+    private static final String SCAN_PACKAGE = "com.reactify.benchmark";
+
+    /**
+     * Constructs a new instance of {@code LocalCacheDiscoveryBenchmark}.
+     */
+    public LocalCacheDiscoveryBenchmark() {}
+
+    /**
+     * <p>
+     * Discovers the cached methods from the generated index.
+     * </p>
+     *
+     * @return the discovered methods.
+     */
+    @Benchmark
+    public Set<Method> index() {
+        return LocalCacheIndex.load(LocalCacheDiscoveryBenchmark.class.getClassLoader())
+                .orElseThrow();
+    }
+
+    /**
+     * <p>
+     * Discovers the cached methods by scanning the package with Reflections.
+     * </p>
+     *
+     * @return the discovered methods.
+     */
+    @Benchmark
+    public Set<Method> scan() {
+        Reflections reflections = new Reflections(SCAN_PACKAGE, Scanners.MethodsAnnotated);
+        return reflections.get(Scanners.MethodsAnnotated.with(LocalCache.class).as(Method.class));
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark;
+
+import brave.Tracer;
+import brave.Tracing;
+import brave.sampler.Sampler;
+import com.reactify.annotations.logging.LoggerAspect;
+import com.reactify.annotations.logging.LoggerAspectUtils;
+import com.reactify.annotations.logging.LoggerProperties;
+import com.reactify.annotations.logging.LoggerSampler;
+import com.reactify.benchmark.baseline.LegacyLoggerAspect;
+import com.reactify.benchmark.sample.SampleLoggedService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * <p>
+ * Measures the overhead the {@code @LogPerformance} advice adds to a call
+ * through a Spring AOP proxy, comparing the advice that resolves the
+ * annotation and names on every call ({@link LegacyLoggerAspect}) against the
+ * current {@link LoggerAspect}, which caches them per method. The
+ * {@code unadvised} benchmark is the same call without any proxy, and the
+ * {@code timedAdvice} benchmark adds the {@code perf.method} timer the other
+ * advices run without.
+ * </p>
+ *
+ * <p>
+ * Calls complete under the logging threshold, so no event is queued and only
+ * the per-call cost of the advice is reported. Run with
+ * {@code java -jar target/benchmarks.jar LoggerAspectBenchmark -prof gc} to
+ * compare the bytes allocated per call ({@code gc.alloc.rate.norm}).
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LoggerAspectBenchmark {
+
+    private static final String ID = "order-1";
+
+    private Tracing tracing;
+    private SampleLoggedService unadvisedService;
+    private SampleLoggedService legacyService;
+    private SampleLoggedService cachedService;
+    private SampleLoggedService timedService;
+
+    /**
+     * Constructs a new instance of {@code LoggerAspectBenchmark}.
+     */
+    public LoggerAspectBenchmark() {}
+
+    /**
+     * <p>
+     * Creates one proxy per advice, sharing a tracer that samples no span so
+     * that nothing is reported.
+     * </p>
+     */
+    @Setup
+    public void setup() {
+        tracing = Tracing.newBuilder().sampler(Sampler.NEVER_SAMPLE).build();
+        Tracer tracer = tracing.tracer();
+        LoggerProperties untimed = new LoggerProperties();
+        untimed.getMetrics().setEnabled(false);
+        LoggerProperties timed = new LoggerProperties();
+        LoggerSampler sampler = new LoggerSampler(untimed);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        ObjectProvider<MeterRegistry> registry = beans.getBeanProvider(MeterRegistry.class);
+
+        unadvisedService = new SampleLoggedService();
+        legacyService = proxy(new LegacyLoggerAspect(tracer, sampler));
+        cachedService = proxy(new LoggerAspect(new LoggerAspectUtils(tracer, sampler, untimed, registry)));
+        timedService = proxy(new LoggerAspect(new LoggerAspectUtils(tracer, sampler, timed, registry)));
+    }
+
+    /**
+     * <p>
+     * Closes the tracer.
+     * </p>
+     */
+    @TearDown
+    public void tearDown() {
+        tracing.close();
+    }
+
+    private static SampleLoggedService proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleLoggedService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    /**
+     * <p>
+     * Call without any advice.
+     * </p>
+     *
+     * @return the order status.
+     */
+    @Benchmark
+    public String unadvised() {
+        return unadvisedService.findStatus(ID).block();
+    }
+
+    /**
+     * <p>
+     * Call through the advice resolving the method description on every call.
+     * </p>
+     *
+     * @return the order status.
+     */
+    @Benchmark
+    public String legacyAdvice() {
+        return legacyService.findStatus(ID).block();
+    }
+
+    /**
+     * <p>
+     * Call through the advice using the cached method description.
+     * </p>
+     *
+     * @return the order status.
+     */
+    @Benchmark
+    public String cachedAdvice() {
+        return cachedService.findStatus(ID).block();
+    }
+
+    /**
+     * <p>
+     * Call through the advice using the cached method description and
+     * recording into the method timer.
+     * </p>
+     *
+     * @return the order status.
+     */
+    @Benchmark
+    public String timedAdvice() {
+        return timedService.findStatus(ID).block();
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark;
+
+import brave.Span;
+import brave.Tracing;
+import com.reactify.annotations.logging.LoggerCapture;
+import com.reactify.benchmark.baseline.LegacyLoggerDTO;
+import com.reactify.model.logging.LoggerDTO;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.util.context.Context;
+
+/**
+ * <p>
+ * Measures what a queued performance log event costs in memory, comparing the
+ * event that used to hold the Reactor context, the arguments and the response
+ * ({@link LegacyLoggerDTO}) against the compact event built by
+ * {@link LoggerCapture}.
+ * </p>
+ *
+ * <p>
+ * The {@code *Retained} benchmarks queue {@link #events} events, each with its
+ * own request and response payload as a real call would have, and report the
+ * heap still reachable after a full collection as the
+ * {@code retainedBytesPerEvent} counter. The compact event drops the context
+ * but keeps the arguments and response until the consumer serializes them.
+ * The {@code capture} benchmark reports what building one event costs the
+ * request thread; run it with {@code -prof gc} to see the bytes allocated per
+ * capture.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class LoggerCaptureBenchmark {
+
+    /**
+     * Number of events queued by the retained-heap benchmarks.
+     */
+    @Param({"10000"})
+    public int events;
+
+    private Span span;
+    private List<Object> queued;
+
+    /**
+     * Constructs a new instance of {@code LoggerCaptureBenchmark}.
+     */
+    public LoggerCaptureBenchmark() {}
+
+    /**
+     * <p>
+     * Retained heap per queued event, reported by the benchmarks.
+     * </p>
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Retained {
+
+        /**
+         * Bytes of heap reachable from one queued event.
+         */
+        public long retainedBytesPerEvent;
+
+        /**
+         * Constructs a new instance of {@code Retained}.
+         */
+        public Retained() {}
+    }
+
+    /**
+     * <p>
+     * Creates the span shared by the events.
+     * </p>
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        span = Tracing.newBuilder().build().tracer().nextSpan().name("benchmark");
+    }
+
+    /**
+     * <p>
+     * Queues events holding the context, arguments and response.
+     * </p>
+     *
+     * @param retained
+     *            receives the retained heap per event.
+     * @return the queued events.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public List<Object> legacyRetained(Retained retained) {
+        return fill(retained, i -> new LegacyLoggerDTO(
+                context(i),
+                span,
+                "ProductService.findAll",
+                0L,
+                120L,
+                "0",
+                response(i),
+                "service",
+                "ProductService",
+                arguments(i),
+                null));
+    }
+
+    /**
+     * <p>
+     * Queues the compact events built by {@link LoggerCapture}.
+     * </p>
+     *
+     * @param retained
+     *            receives the retained heap per event.
+     * @return the queued events.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public List<Object> captureRetained(Retained retained) {
+        return fill(retained, this::capture);
+    }
+
+    /**
+     * <p>
+     * Cost of building one compact event from a call with a large response.
+     * </p>
+     *
+     * @return the event.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public LoggerDTO capture() {
+        return capture(0);
+    }
+
+    private LoggerDTO capture(int i) {
+        return LoggerCapture.capture(
+                context(i),
+                span,
+                "ProductService.findAll",
+                0L,
+                120L,
+                "0",
+                response(i),
+                "service",
+                "ProductService",
+                arguments(i),
+                null);
+    }
+
+    private List<Object> fill(Retained retained, IntFunction<Object> event) {
+        queued = null;
+        long before = usedHeap();
+        List<Object> list = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            list.add(event.apply(i));
+        }
+        queued = list;
+        retained.retainedBytesPerEvent = (usedHeap() - before) / events;
+        return list;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static AtomicReference<Context> context(int i) {
+        return new AtomicReference<>(Context.of("request-body", new byte[16 * 1024], "msisdn", "8490000" + i));
+    }
+
+    private static Object[] arguments(int i) {
+        return new Object[] {Map.of("page", i, "size", 200, "filter", "x".repeat(512))};
+    }
+
+    private static List<String> response(int i) {
+        List<String> products = new ArrayList<>(200);
+        for (int p = 0; p < 200; p++) {
+            products.add("product-" + i + "-" + p);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark;
+
+import com.reactify.benchmark.sample.SampleCacheService;
+import com.reactify.cache.CacheAspect;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * <p>
+ * Compares {@code @LocalCache} hits on a large catalog cache kept on the heap
+ * against the same cache with {@code storage = OFF_HEAP}, which trades a
+ * deserialization per hit for a smaller old generation.
+ * </p>
+ *
+ * <p>
+ * Both caches are filled with {@link #entries} products before measuring, and
+ * the heap retained after a full collection is printed for each, which shows
+ * the old-generation footprint the off-heap mode saves. Run with
+ * {@code java -jar target/benchmarks.jar OffHeapCacheBenchmark -prof gc} to
+ * report the hit-path allocation rate and GC time next to the latency.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xmx2g", "-XX:MaxDirectMemorySize=1g"})
+public class OffHeapCacheBenchmark {
+
+    /**
+     * Number of products loaded into each cache.
+     */
+    @Param({"100000"})
+    public int entries;
+
+    private SampleCacheService service;
+
+    /**
+     * Constructs a new instance of {@code OffHeapCacheBenchmark}.
+     */
+    public OffHeapCacheBenchmark() {}
+
+    /**
+     * <p>
+     * Creates the proxy and loads every product into both caches.
+     * </p>
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleCacheService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CacheAspect());
+        service = factory.getProxy();
+        long baseline = retainedHeap();
+        for (long id = 0; id < entries; id++) {
+            service.findProductOffHeap(id).block();
+        }
+        long offHeap = retainedHeap();
+        for (long id = 0; id < entries; id++) {
+            service.findProduct(id).block();
+        }
+        long heap = retainedHeap();
+        System.out.printf(
+                "%nRetained heap for %d entries: heap storage %d KB, off-heap storage %d KB%n",
+                entries, (heap - offHeap) / 1024, (offHeap - baseline) / 1024);
+    }
+
+    private static long retainedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * <p>
+     * Hit on a random product of the on-heap cache.
+     * </p>
+     *
+     * @return the cached value.
+     */
+    @Benchmark
+    public String heapHit() {
+        return service.findProduct(randomId()).block();
+    }
+
+    /**
+     * <p>
+     * Hit on a random product of the off-heap cache.
+     * </p>
+     *
+     * @return the cached value.
+     */
+    @Benchmark
+    public String offHeapHit() {
+        return service.findProductOffHeap(randomId()).block();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextInt(entries);
+    }
+}
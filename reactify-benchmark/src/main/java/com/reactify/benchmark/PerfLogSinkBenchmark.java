@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark;
+
+import com.reactify.annotations.logging.LoggerProperties;
+import com.reactify.annotations.logging.MappedFilePerfLogSink;
+import com.reactify.factory.ObjectMapperFactory;
+import com.reactify.model.logging.LogField;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * <p>
+ * Measures how many performance log events per second a single writer thread
+ * sustains with the {@link MappedFilePerfLogSink}, next to the JSON string
+ * formatting the Log4j sink pays for every event before Log4j even sees it.
+ * </p>
+ *
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar PerfLogSinkBenchmark -prof gc}
+ * to also compare the bytes allocated per event.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerfLogSinkBenchmark {
+
+    private static final LogField EVENT = new LogField(
+            "4bf92f3577b34da6a3ce929d0e0e4736",
+            "c0a8010a-5f1e-4c7e-9a52-3f1f0f2d9b11",
+            "ProductService.findAll",
+            120L,
+            "service",
+            "ProductService",
+            1_700_000_000_000L,
+            1_700_000_000_120L,
+            "10.0.0.12",
+            null,
+            "[{\"page\":0,\"size\":20}]",
+            "[{\"id\":1,\"name\":\"product-1\"},{\"id\":2,\"name\":\"product-2\"}]",
+            "0");
+
+    private Path directory;
+    private MappedFilePerfLogSink sink;
+
+    /**
+     * Constructs a new instance of {@code PerfLogSinkBenchmark}.
+     */
+    public PerfLogSinkBenchmark() {}
+
+    /**
+     * <p>
+     * Opens a sink writing to a temporary directory.
+     * </p>
+     *
+     * @throws IOException
+     *             if the directory cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("perf-log-benchmark");
+        LoggerProperties.Sink settings = new LoggerProperties.Sink();
+        settings.setDirectory(directory.toString());
+        settings.setSegmentSize(DataSize.ofMegabytes(64));
+        settings.setMaxSegments(4);
+        sink = new MappedFilePerfLogSink(settings);
+    }
+
+    /**
+     * <p>
+     * Closes the sink and deletes its segments.
+     * </p>
+     *
+     * @throws IOException
+     *             if the segments cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sink.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Writes one event to the memory-mapped segments.
+     * </p>
+     */
+    @Benchmark
+    public void mappedFile() {
+        sink.write(EVENT);
+    }
+
+    /**
+     * <p>
+     * Formats one event as the JSON line handed to Log4j.
+     * </p>
+     *
+     * @return the JSON line.
+     * @throws IOException
+     *             if the event cannot be serialized.
+     */
+    @Benchmark
+    public String jsonLine() throws IOException {
+        return ObjectMapperFactory.getInstance().writeValueAsString(EVENT);
+    }
+}
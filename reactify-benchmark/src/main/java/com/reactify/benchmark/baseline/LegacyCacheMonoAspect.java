@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark.baseline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.util.ClassUtils;
+import reactor.cache.CacheMono;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+/**
+ * <p>
+ * Copy of the {@code CacheAspect} advice as it was implemented on top of the
+ * deprecated {@code reactor-extra} {@link CacheMono}, kept only as the baseline
+ * of {@code CacheAspectBenchmark}. Cache names are rebuilt and looked up in a
+ * {@link HashMap} on every call, as the original advice did.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Aspect
+public class LegacyCacheMonoAspect {
+
+    private final Map<String, Cache<Object, Object>> caches = new HashMap<>();
+
+    /**
+     * Constructs a new instance of {@code LegacyCacheMonoAspect}.
+     */
+    public LegacyCacheMonoAspect() {}
+
+    /**
+     * <p>
+     * Around advice reproducing the original {@code CacheMono} based lookup.
+     * </p>
+     *
+     * @param joinPoint
+     *            the advised method execution.
+     * @return the cached or loaded {@link Mono}.
+     * @throws Throwable
+     *             if the advised method fails.
+     */
+    @Around("@annotation(com.reactify.cache.LocalCache)")
+    public Object aroundAdvice(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        Object key = SimpleKeyGenerator.generateKey(args);
+        String name = ClassUtils.getUserClass(joinPoint.getTarget().getClass()).getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+        Cache<Object, Object> cache = caches.computeIfAbsent(name, n -> Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(120))
+                .recordStats()
+                .maximumSize(1000)
+                .build());
+        return CacheMono.lookup(k -> Mono.justOrEmpty(cache.getIfPresent(key)).map(Signal::next), key)
+                .onCacheMissResume((Mono<Object>) joinPoint.proceed(args))
+                .andWriteWith((k, sig) -> Mono.fromRunnable(() -> {
+                    if (sig != null && sig.get() != null) {
+                        if (!(sig.get() instanceof Optional
+                                && ((Optional<?>) Objects.requireNonNull(sig.get())).isEmpty())) {
+                            cache.put(k, sig.get());
+                        }
+                    }
+                }));
+    }
+}
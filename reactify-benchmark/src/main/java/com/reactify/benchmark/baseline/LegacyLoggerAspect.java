@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark.baseline;
+
+import brave.Span;
+import brave.Tracer;
+import com.reactify.annotations.LogPerformance;
+import com.reactify.annotations.logging.LoggerQueue;
+import com.reactify.annotations.logging.LoggerSampler;
+import com.reactify.util.DataUtil;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReference;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * <p>
+ * Copy of the {@code @LogPerformance} advice before per-method descriptors were
+ * cached: every call reads the annotation and builds the method, log type and
+ * action type names again. Only the {@link Mono} path is kept, which is what
+ * the benchmark exercises.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Aspect
+public class LegacyLoggerAspect {
+
+    private final Tracer tracer;
+    private final LoggerSampler sampler;
+
+    /**
+     * Constructs a new instance of {@code LegacyLoggerAspect}.
+     *
+     * @param tracer
+     *            the tracer creating the span of each call.
+     * @param sampler
+     *            decides which calls produce a performance log event.
+     */
+    public LegacyLoggerAspect(Tracer tracer, LoggerSampler sampler) {
+        this.tracer = tracer;
+        this.sampler = sampler;
+    }
+
+    /**
+     * <p>
+     * Advises {@link LogPerformance} methods.
+     * </p>
+     *
+     * @param joinPoint
+     *            the intercepted call.
+     * @return the result of the call.
+     * @throws Throwable
+     *             if the call fails.
+     */
+    @Around("@annotation(com.reactify.annotations.LogPerformance)")
+    public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Method method = signature.getMethod();
+        LogPerformance logPerformance = method.getAnnotation(LogPerformance.class);
+
+        long start = System.currentTimeMillis();
+        String name = joinPoint.getTarget().getClass().getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+
+        String logType = joinPoint.getTarget().getClass().getName();
+        String actionType = joinPoint.getTarget().getClass().getSimpleName();
+        boolean logOutput = true;
+        boolean logInput = true;
+        String title = null;
+        if (logPerformance != null) {
+            if (!DataUtil.isNullOrEmpty(logPerformance.logType())) {
+                logType = logPerformance.logType();
+            }
+            if (!DataUtil.isNullOrEmpty(logPerformance.actionType())) {
+                actionType = logPerformance.actionType();
+            }
+            logOutput = logPerformance.logOutput();
+            logInput = logPerformance.logInput();
+            title = logPerformance.title();
+        }
+
+        Span newSpan = tracer.nextSpan().name(name);
+        boolean sampled =
+                sampler.sample(LoggerSampler.pointcut(joinPoint.getTarget().getClass(), logPerformance != null));
+
+        var result = joinPoint.proceed();
+        if (!(result instanceof Mono<?> mono)) {
+            return result;
+        }
+        var contextRef = new AtomicReference<Context>();
+        String finalLogType = logType;
+        String finalActionType = actionType;
+        boolean finalLogOutput = logOutput;
+        boolean finalLogInput = logInput;
+        String finalTitle = title;
+        return mono.doOnSuccess(o -> {
+                    newSpan.finish();
+                    long endTime = System.currentTimeMillis();
+                    if (sampler.retain(name, endTime - start, false, sampled)) {
+                        LoggerQueue.getInstance()
+                                .addQueue(
+                                        contextRef,
+                                        newSpan,
+                                        name,
+                                        start,
+                                        endTime,
+                                        "0",
+                                        finalLogOutput ? o : null,
+                                        finalLogType,
+                                        finalActionType,
+                                        finalLogInput ? joinPoint.getArgs() : null,
+                                        finalTitle);
+                    }
+                })
+                .contextWrite(context -> {
+                    contextRef.set(context);
+                    return context;
+                });
+    }
+}
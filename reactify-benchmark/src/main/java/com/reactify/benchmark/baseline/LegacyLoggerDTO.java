@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark.baseline;
+
+import brave.Span;
+import java.util.concurrent.atomic.AtomicReference;
+import reactor.util.context.Context;
+
+/**
+ * <p>
+ * Copy of the performance log event as it was queued before the capture step
+ * extracted its values, kept only as the baseline of
+ * {@code LoggerCaptureBenchmark}. It holds the Reactor context, the raw
+ * arguments and the response until the event is written.
+ * </p>
+ *
+ * @param contextRef
+ *            the context of the call.
+ * @param newSpan
+ *            the span of the call.
+ * @param service
+ *            the service name.
+ * @param startTime
+ *            the start time in milliseconds.
+ * @param endTime
+ *            the end time in milliseconds.
+ * @param result
+ *            the result code.
+ * @param response
+ *            the response of the call.
+ * @param logType
+ *            the log type.
+ * @param actionType
+ *            the action type.
+ * @param args
+ *            the arguments of the call.
+ * @param title
+ *            the title of the log entry.
+ * @author hoangtien2k3
+ */
+public record LegacyLoggerDTO(
+        AtomicReference<Context> contextRef,
+        Span newSpan,
+        String service,
+        Long startTime,
+        Long endTime,
+        String result,
+        Object response,
+        String logType,
+        String actionType,
+        Object[] args,
+        String title) {}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark.sample;
+
+import com.reactify.cache.LocalCache;
+import java.util.List;
+import reactor.core.publisher.Mono;
+
+/**
+ * <p>
+ * Sample service with {@link LocalCache} methods used as the workload of the
+ * cache benchmarks.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public class SampleCacheService {
+
+    /**
+     * Constructs a new instance of {@code SampleCacheService}.
+     */
+    public SampleCacheService() {}
+
+    /**
+     * <p>
+     * Returns a cached configuration value.
+     * </p>
+     *
+     * @param code
+     *            the configuration code.
+     * @return a {@link Mono} emitting the value.
+     */
+    @LocalCache(durationInMinute = 30, maxRecord = 10000)
+    public Mono<String> findConfig(String code) {
+        return Mono.just("config-" + code);
+    }
+
+    /**
+     * <p>
+     * Returns a cached catalog entry.
+     * </p>
+     *
+     * @param id
+     *            the catalog id.
+     * @return a {@link Mono} emitting the entry.
+     */
+    @LocalCache(durationInMinute = 30, maxRecord = 10000)
+    public Mono<String> findCatalog(Long id) {
+        return Mono.just("catalog-" + id);
+    }
+
+    /**
+     * <p>
+     * Returns every cached option value.
+     * </p>
+     *
+     * @return a {@link Mono} emitting the option values.
+     */
+    @LocalCache(durationInMinute = 60, autoCache = true)
+    public Mono<List<String>> findAllOptions() {
+        return Mono.just(List.of("A", "B", "C"));
+    }
+
+    /**
+     * <p>
+     * Returns a cached product description, kept on the heap.
+     * </p>
+     *
+     * @param id
+     *            the product id.
+     * @return a {@link Mono} emitting the description.
+     */
+    @LocalCache(durationInMinute = 30, maxRecord = 200000)
+    public Mono<String> findProduct(Long id) {
+        return Mono.just(describeProduct(id));
+    }
+
+    /**
+     * <p>
+     * Returns a cached product description, kept off the heap.
+     * </p>
+     *
+     * @param id
+     *            the product id.
+     * @return a {@link Mono} emitting the description.
+     */
+    @LocalCache(durationInMinute = 30, maxRecord = 200000, storage = LocalCache.Storage.OFF_HEAP)
+    public Mono<String> findProductOffHeap(Long id) {
+        return Mono.just(describeProduct(id));
+    }
+
+    private static String describeProduct(Long id) {
+        return "product-" + id + ":" + "x".repeat(240);
+    }
+}
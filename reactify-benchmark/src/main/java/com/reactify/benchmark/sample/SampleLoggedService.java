@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.benchmark.sample;
+
+import com.reactify.annotations.LogPerformance;
+import reactor.core.publisher.Mono;
+
+/**
+ * <p>
+ * Sample service with a {@link LogPerformance} method used as the workload of
+ * the performance logging benchmarks. The method completes immediately, so
+ * calls stay under the logging threshold and only the advice overhead is
+ * measured.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public class SampleLoggedService {
+
+    /**
+     * Constructs a new instance of {@code SampleLoggedService}.
+     */
+    public SampleLoggedService() {}
+
+    /**
+     * <p>
+     * Returns an order status.
+     * </p>
+     *
+     * @param id
+     *            the order id.
+     * @return a {@link Mono} emitting the status.
+     */
+    @LogPerformance(logType = "order", actionType = "findStatus", title = "Find order status")
+    public Mono<String> findStatus(String id) {
+        return Mono.just("PAID");
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.core.annotation.AliasFor;
+
+/**
+ * <p>
+ * Former {@code reactify-core} annotation marking a method whose result is
+ * cached locally. It is now an alias of {@link com.reactify.cache.LocalCache}:
+ * every attribute maps to the attribute of the same name, and methods carrying
+ * either annotation are served by the single cache engine of
+ * {@code reactify-cache}, exactly once.
+ * </p>
+ *
+ * @author hoangtien2k3
+ * @deprecated use {@link com.reactify.cache.LocalCache} instead.
+ */
+@Deprecated
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@com.reactify.cache.LocalCache
+public @interface LocalCache {
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#durationInMinute()}.
+     *
+     * @return the cache duration in minutes
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    int durationInMinute() default 120;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#maxRecord()}.
+     *
+     * @return the maximum number of records
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    int maxRecord() default 1000;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#autoCache()}.
+     *
+     * @return whether the method is auto-loaded
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    boolean autoCache() default false;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#refreshAfter()}.
+     *
+     * @return the refresh age in minutes
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    int refreshAfter() default 0;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#staleWhileRevalidate()}.
+     *
+     * @return the stale-while-revalidate grace period in minutes
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    int staleWhileRevalidate() default 0;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#maxElements()}.
+     *
+     * @return the maximum number of cached {@code Flux} elements
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    int maxElements() default 10000;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#tier()}.
+     *
+     * @return the cache tier
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    com.reactify.cache.LocalCache.Tier tier() default com.reactify.cache.LocalCache.Tier.LOCAL;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#keyExpression()}.
+     *
+     * @return the key expression
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    String keyExpression() default "";
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#keyGenerator()}.
+     *
+     * @return the key generator bean name
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    String keyGenerator() default "";
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#maxWeightBytes()}.
+     *
+     * @return the maximum weight in bytes
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    long maxWeightBytes() default 0;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#weigher()}.
+     *
+     * @return the weigher bean name
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    String weigher() default "";
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#snapshot()}.
+     *
+     * @return whether the cache is included in snapshots
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    boolean snapshot() default false;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#negativeTtl()}.
+     *
+     * @return the negative caching time-to-live in seconds
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    int negativeTtl() default 0;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#errorTtl()}.
+     *
+     * @return the error caching time-to-live in seconds
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    int errorTtl() default 0;
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#cacheErrors()}.
+     *
+     * @return the cached exception types
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    Class<? extends Throwable>[] cacheErrors() default {};
+
+    /**
+     * See {@link com.reactify.cache.LocalCache#storage()}.
+     *
+     * @return where the cached values are kept
+     */
+    @AliasFor(annotation = com.reactify.cache.LocalCache.class)
+    com.reactify.cache.LocalCache.Storage storage() default com.reactify.cache.LocalCache.Storage.HEAP;
+}
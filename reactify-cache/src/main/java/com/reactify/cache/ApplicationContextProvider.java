@@ -18,7 +18,6 @@ package com.reactify.cache;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
-import org.springframework.stereotype.Component;
 
 /**
  * <p>
@@ -27,7 +26,6 @@ import org.springframework.stereotype.Component;
  *
  * @author hoangtien2k3
  */
-@Component
 public class ApplicationContextProvider implements ApplicationContextAware {
 
     private static ApplicationContext context;
@@ -15,63 +15,494 @@
  */
 package com.reactify.cache;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import java.util.Objects;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
-import org.springframework.cache.interceptor.SimpleKeyGenerator;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.util.ClassUtils;
-import reactor.cache.CacheMono;
+import org.aspectj.lang.reflect.MethodSignature;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Signal;
+import reactor.util.context.ContextView;
 
 /**
  * <p>
- * CacheAspect class.
+ * The {@code CacheAspect} class provides caching functionality for methods
+ * annotated with {@link com.reactify.cache.LocalCache}. This aspect
+ * intercepts method calls, checks the cache for existing results, and returns
+ * cached results if available. If no cached result is found, the method is
+ * executed and the result is stored in the cache for future calls.
+ * </p>
+ *
+ * <p>
+ * Concurrent misses on the same key are coalesced: the first caller starts the
+ * load and every other caller subscribes to the same pending future, so an
+ * expired hot key only reaches the underlying method once. A hit on a fresh,
+ * completed entry is answered with {@code Mono.just(value)} directly, without
+ * building any lookup operator chain.
+ * </p>
+ *
+ * <p>
+ * When {@code refreshAfter} or {@code staleWhileRevalidate} is configured, an
+ * entry past its refresh age is still returned to the caller while a single
+ * background reload replaces it. A failed reload leaves the current entry in
+ * place until it physically expires.
+ * </p>
+ *
+ * <p>
+ * Methods returning {@link reactor.core.publisher.Flux} are cached as an
+ * unmodifiable list of their elements and replayed as a new {@code Flux} on
+ * every hit. On a miss the elements are streamed to the loading caller as they
+ * arrive and collected on the side; collecting stops as soon as the result has
+ * more than {@code maxElements} elements, which are then delivered but not
+ * kept. Concurrent callers wait for the collected list, and invoke the method
+ * themselves when the loader could not keep it.
+ * </p>
+ *
+ * <p>
+ * For {@code LOCAL_AND_REMOTE} caches a local miss is first looked up in the
+ * shared {@link RemoteCacheStore}; only a remote miss invokes the method.
+ * </p>
+ *
+ * <p>
+ * This class uses Spring AOP (Aspect-Oriented Programming) features to
+ * implement caching logic around method executions, providing a way to enhance
+ * performance by avoiding redundant computations or data retrievals.
+ * </p>
+ *
+ * <p>
+ * The class is annotated with {@link org.aspectj.lang.annotation.Aspect} and
+ * registered once by {@link LocalCacheAutoConfiguration}, so annotated methods
+ * are never advised twice. The logging is managed using the Lombok
+ * {@link lombok.extern.slf4j.Slf4j} annotation.
  * </p>
  *
  * @author hoangtien2k3
  */
 @Aspect
-@Configuration
 @Slf4j
 public class CacheAspect {
 
-    @Pointcut("@annotation(com.reactify.cache.LocalCache)")
+    /**
+     * Constructs a new instance of {@code CacheAspect}.
+     */
+    public CacheAspect() {}
+
+    /**
+     * <p>
+     * Pointcut that matches methods annotated with
+     * {@link com.reactify.cache.LocalCache} or with its deprecated alias
+     * {@code com.reactify.annotations.LocalCache}. A method carrying both is
+     * matched, and advised, once.
+     * </p>
+     */
+    @Pointcut("@annotation(com.reactify.cache.LocalCache) || @annotation(com.reactify.annotations.LocalCache)")
     private void processAnnotation() {}
 
     /**
      * <p>
-     * aroundAdvice.
+     * Around advice that intercepts method calls annotated with
+     * {@link com.reactify.cache.LocalCache}. This method checks for a cached
+     * result using the key the method's {@link CacheDefinition} builds from the
+     * arguments. If a cached
+     * result is found, it is returned; otherwise, the method is executed once per
+     * key, and the result is shared with every concurrent caller and stored in the
+     * cache. Empty {@code Mono} results, empty {@link java.util.Optional} values
+     * and {@code Flux} results larger than {@code maxElements} are not kept.
      * </p>
      *
      * @param joinPoint
-     *            a {@link ProceedingJoinPoint} object
-     * @return a {@link Object} object
-     * @throws Throwable
-     *             if any.
+     *            a {@link org.aspectj.lang.ProceedingJoinPoint} object representing
+     *            the method execution context.
+     * @return an {@link java.lang.Object} that is the result of the method
+     *         execution or the cached result.
+     * @throws java.lang.Throwable
+     *             if any exception occurs during method execution or while
+     *             accessing the cache.
      */
+    @SuppressWarnings("unchecked")
     @Around("processAnnotation()")
     public Object aroundAdvice(ProceedingJoinPoint joinPoint) throws Throwable {
         Object[] args = joinPoint.getArgs();
-        Object key = SimpleKeyGenerator.generateKey(args);
-        String name = ClassUtils.getUserClass(joinPoint.getTarget().getClass()).getSimpleName() + "."
-                + joinPoint.getSignature().getName();
-        Cache<Object, Object> cache = CacheStore.getCache(name);
-        return CacheMono.lookup(k -> Mono.justOrEmpty(cache.getIfPresent(key)).map(Signal::next), key)
-                .onCacheMissResume((Mono<Object>) joinPoint.proceed(args))
-                .andWriteWith((k, sig) -> Mono.fromRunnable(() -> {
-                    if (sig != null && sig.get() != null) {
-                        if (!(sig.get() instanceof Optional
-                                && ((Optional<?>) Objects.requireNonNull(sig.get())).isEmpty())) {
-                            cache.put(k, sig.get());
-                        }
+        Object target = joinPoint.getTarget();
+        CacheDefinition definition =
+                CacheStore.getDefinition(((MethodSignature) joinPoint.getSignature()).getMethod(), target.getClass());
+        Object key = definition.generateKey(target, args);
+        AsyncCache<Object, CacheEntry> cache = definition.getCache();
+        CacheEntry hit = definition.resolve(completedEntry(cache.asMap().get(key)));
+        if (hit != null && !definition.needsRefresh(hit) && definition.isCacheable(hit.value())) {
+            definition.recordHit();
+            if (hit.isFailure() || hit.isEmptyResult()) {
+                Mono<Object> replayed = hit.toMono();
+                return definition.isFlux() ? replayed.flatMapIterable(list -> (List<Object>) list) : replayed;
+            }
+            return definition.isFlux() ? Flux.fromIterable((List<Object>) hit.value()) : Mono.just(hit.value());
+        }
+        if (definition.isFlux()) {
+            return fluxResult(definition, key, joinPoint, args);
+        }
+        Mono<Object> result = Mono.deferContextual(ctx -> {
+            CompletableFuture<CacheEntry> future =
+                    cache.get(key, (k, executor) -> load(definition, key, joinPoint, args, ctx, true));
+            return Mono.fromFuture(future, true).flatMap(stored -> {
+                CacheEntry entry = definition.resolve(stored);
+                if (entry == null) {
+                    // the off-heap value was released after the lookup, serve a fresh one
+                    return invoke(definition, joinPoint, args);
+                }
+                if (!definition.isCacheable(entry.value())) {
+                    log.debug("Result of cache {} is not cacheable, skip it", definition.getName());
+                    cache.asMap().remove(key, future);
+                } else if (definition.needsRefresh(entry)) {
+                    refresh(definition, key, future, joinPoint, args, ctx);
+                }
+                return entry.toMono();
+            });
+        });
+        return result;
+    }
+
+    /**
+     * <p>
+     * Answers a {@code Flux} method on a miss or a refresh. Without a remote
+     * tier, the first caller claims the key with a pending future and streams the
+     * method's elements, see {@link FluxCollector}; any other caller replays the
+     * future of the key.
+     * </p>
+     *
+     * @param definition
+     *            the cache definition of the advised method.
+     * @param key
+     *            the cache key.
+     * @param joinPoint
+     *            the advised method execution.
+     * @param args
+     *            the invocation arguments.
+     * @return the elements of the method result.
+     */
+    private static Flux<Object> fluxResult(
+            CacheDefinition definition, Object key, ProceedingJoinPoint joinPoint, Object[] args) {
+        AsyncCache<Object, CacheEntry> cache = definition.getCache();
+        return Flux.deferContextual(ctx -> {
+            CompletableFuture<CacheEntry> future;
+            if (definition.getRemoteCacheStore() == null) {
+                CompletableFuture<CacheEntry> promise = new CompletableFuture<>();
+                future = cache.asMap().putIfAbsent(key, promise);
+                if (future == null) {
+                    definition.recordMiss();
+                    return stream(definition, joinPoint, args, promise);
+                }
+                definition.recordHit();
+            } else {
+                future = cache.get(key, (k, executor) -> load(definition, key, joinPoint, args, ctx, true));
+            }
+            return replay(definition, key, future, joinPoint, args, ctx);
+        });
+    }
+
+    /**
+     * <p>
+     * Replays the list stored in the future of a {@code Flux} method. When the
+     * future holds nothing to replay, because the loader was cancelled, its
+     * result exceeded {@code maxElements} or its off-heap value was released,
+     * the method is invoked again for this caller and not cached.
+     * </p>
+     *
+     * @param definition
+     *            the cache definition of the advised method.
+     * @param key
+     *            the cache key.
+     * @param future
+     *            the future stored for the key.
+     * @param joinPoint
+     *            the advised method execution.
+     * @param args
+     *            the invocation arguments.
+     * @param ctx
+     *            the subscriber context of the caller.
+     * @return the elements of the method result.
+     */
+    @SuppressWarnings("unchecked")
+    private static Flux<Object> replay(
+            CacheDefinition definition,
+            Object key,
+            CompletableFuture<CacheEntry> future,
+            ProceedingJoinPoint joinPoint,
+            Object[] args,
+            ContextView ctx) {
+        return Mono.fromFuture(future, true)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMapMany(stored -> {
+                    CacheEntry entry = stored.map(definition::resolve).orElse(null);
+                    if (entry != null && !definition.isCacheable(entry.value())) {
+                        definition.getCache().asMap().remove(key, future);
+                        entry = null;
+                    }
+                    if (entry == null) {
+                        return stream(definition, joinPoint, args, null);
                     }
-                }));
+                    if (definition.needsRefresh(entry)) {
+                        refresh(definition, key, future, joinPoint, args, ctx);
+                    }
+                    return entry.toMono().flatMapIterable(list -> (List<Object>) list);
+                });
+    }
+
+    /**
+     * <p>
+     * Invokes a {@code Flux} method and streams its elements. When a pending
+     * future is given, the elements are also collected into it.
+     * </p>
+     *
+     * @param definition
+     *            the cache definition of the advised method.
+     * @param joinPoint
+     *            the advised method execution.
+     * @param args
+     *            the invocation arguments.
+     * @param promise
+     *            the pending future of the key, or {@code null} to not cache.
+     * @return the elements of the method result.
+     */
+    @SuppressWarnings("unchecked")
+    private static Flux<Object> stream(
+            CacheDefinition definition,
+            ProceedingJoinPoint joinPoint,
+            Object[] args,
+            CompletableFuture<CacheEntry> promise) {
+        Flux<Object> source;
+        try {
+            source = (Flux<Object>) joinPoint.proceed(args);
+        } catch (Throwable e) {
+            source = Flux.error(e);
+        }
+        if (promise == null) {
+            return source;
+        }
+        FluxCollector collector = new FluxCollector(definition, promise);
+        return source.doOnNext(collector::add)
+                .doOnComplete(collector::complete)
+                .doOnError(collector::error)
+                .doOnCancel(collector::cancel);
+    }
+
+    /**
+     * <p>
+     * Returns the entry of a future that already completed successfully, without
+     * blocking.
+     * </p>
+     *
+     * @param future
+     *            the future stored in the cache, may be {@code null}.
+     * @return the completed entry, or {@code null} if the future is absent, still
+     *         pending or failed.
+     */
+    static CacheEntry completedEntry(CompletableFuture<CacheEntry> future) {
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.getNow(null);
+    }
+
+    /**
+     * <p>
+     * Reloads an entry in the background and swaps it in only if the entry has not
+     * been replaced or invalidated in the meantime. At most one refresh per key
+     * runs at a time; a failed refresh keeps the current entry.
+     * </p>
+     *
+     * @param definition
+     *            the cache definition of the advised method.
+     * @param key
+     *            the cache key.
+     * @param current
+     *            the future currently stored for the key.
+     * @param joinPoint
+     *            the advised method execution.
+     * @param args
+     *            the invocation arguments.
+     * @param ctx
+     *            the subscriber context of the caller that triggered the refresh.
+     */
+    private static void refresh(
+            CacheDefinition definition,
+            Object key,
+            CompletableFuture<CacheEntry> current,
+            ProceedingJoinPoint joinPoint,
+            Object[] args,
+            ContextView ctx) {
+        if (!definition.startRefresh(key)) {
+            return;
+        }
+        load(definition, key, joinPoint, args, ctx, false).whenComplete((entry, error) -> {
+            definition.endRefresh(key);
+            if (error != null || (entry != null && entry.isFailure())) {
+                log.warn("Refresh cache {} failed, keep serving current entry", definition.getName(), error);
+            } else if (entry == null || !definition.isCacheable(entry.value())) {
+                definition.getCache().asMap().remove(key, current);
+            } else if (!definition.getCache().asMap().replace(key, current, CompletableFuture.completedFuture(entry))) {
+                definition.release(entry);
+            }
+        });
+    }
+
+    /**
+     * <p>
+     * Loads a value into the future stored in the cache. For a two-tier cache the
+     * shared {@link RemoteCacheStore} is checked first, and a value loaded from
+     * the method is written back to it in the background. Remote failures are
+     * logged and never fail the call. The subscriber context of the caller that
+     * triggered the load is propagated to the underlying publisher.
+     * </p>
+     *
+     * @param definition
+     *            the cache definition of the advised method.
+     * @param key
+     *            the cache key.
+     * @param joinPoint
+     *            the advised method execution.
+     * @param args
+     *            the invocation arguments.
+     * @param ctx
+     *            the subscriber context of the loading caller.
+     * @param readRemote
+     *            whether the remote tier may answer the load; refreshes skip it to
+     *            get a fresh value.
+     * @return a future completed with the loaded {@link CacheEntry}, with
+     *         {@code null} when the result is empty and negative caching is off,
+     *         or exceptionally when the method fails with an error that is not
+     *         cached.
+     */
+    private static CompletableFuture<CacheEntry> load(
+            CacheDefinition definition,
+            Object key,
+            ProceedingJoinPoint joinPoint,
+            Object[] args,
+            ContextView ctx,
+            boolean readRemote) {
+        RemoteCacheStore remote = definition.getRemoteCacheStore();
+        Mono<Object> value;
+        if (remote == null) {
+            value = invoke(definition, joinPoint, args);
+        } else {
+            Mono<Object> loaded = Mono.defer(() -> invoke(definition, joinPoint, args))
+                    .doOnNext(result -> writeRemote(definition, key, result));
+            value = readRemote
+                    ? remote.get(definition.getName(), key)
+                            .onErrorResume(e -> {
+                                log.warn("Read remote cache {} failed", definition.getName(), e);
+                                return Mono.empty();
+                            })
+                            .switchIfEmpty(loaded)
+                    : loaded;
+        }
+        Mono<CacheEntry> entry = value.map(result -> definition.store(CacheEntry.of(result)));
+        if (definition.cachesEmpty()) {
+            entry = entry.switchIfEmpty(Mono.fromSupplier(CacheEntry::empty));
+        }
+        return entry.onErrorResume(definition::cachesError, e -> Mono.just(CacheEntry.failure(e)))
+                .contextWrite(ctx)
+                .toFuture();
+    }
+
+    private static void writeRemote(CacheDefinition definition, Object key, Object value) {
+        if (!definition.isCacheable(value) || (value instanceof Optional<?> optional && optional.isEmpty())) {
+            return;
+        }
+        definition
+                .getRemoteCacheStore()
+                .put(definition.getName(), key, value, definition.getRemoteTtl())
+                .subscribe(null, e -> log.warn("Write remote cache {} failed", definition.getName(), e));
+    }
+
+    /**
+     * <p>
+     * Invokes the advised method. A {@code Flux} result is collected into an
+     * unmodifiable list, stopping after {@code maxElements + 1} elements: such a
+     * list is not cacheable, and its caller streams the method instead.
+     * </p>
+     *
+     * @param definition
+     *            the cache definition of the advised method.
+     * @param joinPoint
+     *            the advised method execution.
+     * @param args
+     *            the invocation arguments.
+     * @return a {@link Mono} of the method result.
+     */
+    @SuppressWarnings("unchecked")
+    private static Mono<Object> invoke(CacheDefinition definition, ProceedingJoinPoint joinPoint, Object[] args) {
+        try {
+            Object result = joinPoint.proceed(args);
+            return definition.isFlux()
+                    ? ((Flux<Object>) result)
+                            .take(definition.getMaxElements() + 1L)
+                            .collectList()
+                            .<Object>map(Collections::unmodifiableList)
+                    : (Mono<Object>) result;
+        } catch (Throwable e) {
+            return Mono.error(e);
+        }
+    }
+
+    /**
+     * <p>
+     * Collects the elements streamed to the loading caller of a {@code Flux}
+     * method into the pending future of the key. The future completes with the
+     * list once the {@code Flux} completes, with {@code null}, which removes the
+     * key, once there are more than {@code maxElements} elements or the caller
+     * cancels, and with the error, cached or not, when the {@code Flux} fails.
+     * Signals are serialized by Reactor, so no locking is needed.
+     * </p>
+     */
+    private static final class FluxCollector {
+
+        private final CacheDefinition definition;
+        private final CompletableFuture<CacheEntry> promise;
+        private List<Object> elements = new ArrayList<>();
+
+        private FluxCollector(CacheDefinition definition, CompletableFuture<CacheEntry> promise) {
+            this.definition = definition;
+            this.promise = promise;
+        }
+
+        private void add(Object element) {
+            if (elements == null) {
+                return;
+            }
+            if (elements.size() == definition.getMaxElements()) {
+                log.debug("Result of cache {} exceeds maxElements, skip it", definition.getName());
+                elements = null;
+                promise.complete(null);
+                return;
+            }
+            elements.add(element);
+        }
+
+        private void complete() {
+            if (elements != null) {
+                promise.complete(definition.store(CacheEntry.of(Collections.unmodifiableList(elements))));
+            }
+        }
+
+        private void error(Throwable error) {
+            if (definition.cachesError(error)) {
+                promise.complete(CacheEntry.failure(error));
+            } else {
+                promise.completeExceptionally(error);
+            }
+        }
+
+        private void cancel() {
+            elements = null;
+            promise.complete(null);
+        }
     }
 }
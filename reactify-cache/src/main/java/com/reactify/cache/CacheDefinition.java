@@ -0,0 +1,440 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.cache.interceptor.KeyGenerator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * <p>
+ * The {@code CacheDefinition} class holds everything {@link CacheAspect} needs
+ * to serve a {@link com.reactify.cache.LocalCache} method: the cache
+ * name, the backing Caffeine {@link AsyncCache}, whether the method returns a
+ * {@link reactor.core.publisher.Flux}, the key generator, the optional
+ * {@link RemoteCacheStore} tier, and the refresh and size settings resolved
+ * once from the annotation.
+ * </p>
+ *
+ * <p>
+ * The values of an {@code OFF_HEAP} cache are moved to the
+ * {@link OffHeapStore} by {@link #store(CacheEntry)} before they are cached,
+ * and read back by {@link #resolve(CacheEntry)} when they are served.
+ * </p>
+ *
+ * <p>
+ * A definition also tracks which keys are being refreshed in the background so
+ * that at most one refresh per key runs at a time.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public final class CacheDefinition {
+
+    private final String name;
+    private final Method method;
+    private final AsyncCache<Object, CacheEntry> cache;
+    private final StatsCounter statsCounter;
+    private final boolean flux;
+    private final KeyGenerator keyGenerator;
+    private final int maxElements;
+    private final long maxWeightBytes;
+    private final long refreshAfterNanos;
+    private final long freshNanos;
+    private final int jitterPercent;
+    private final long expireAfterWriteNanos;
+    private final boolean snapshot;
+    private final boolean cacheEmpty;
+    private final long errorTtlNanos;
+    private final Class<? extends Throwable>[] cacheErrors;
+    private final OffHeapStore offHeapStore;
+    private final RemoteCacheStore remoteCacheStore;
+    private final Duration remoteTtl;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a new instance of {@code CacheDefinition}.
+     *
+     * @param name
+     *            the cache name, {@code SimpleClassName.methodName}.
+     * @param method
+     *            the annotated method.
+     * @param localCache
+     *            the annotation holding the cache configuration.
+     * @param cache
+     *            the backing cache.
+     * @param statsCounter
+     *            the statistics recorder of the backing cache.
+     * @param remoteCacheStore
+     *            the shared L2 store, or {@code null} for a local-only cache.
+     * @throws IllegalStateException
+     *             if the method returns neither {@code Mono} nor {@code Flux}, or
+     *             if its key configuration is invalid.
+     */
+    public CacheDefinition(
+            String name,
+            Method method,
+            LocalCache localCache,
+            AsyncCache<Object, CacheEntry> cache,
+            StatsCounter statsCounter,
+            RemoteCacheStore remoteCacheStore) {
+        Class<?> returnType = method.getReturnType();
+        if (!Mono.class.isAssignableFrom(returnType) && !Flux.class.isAssignableFrom(returnType)) {
+            throw new IllegalStateException("@LocalCache method " + name + " must return Mono or Flux");
+        }
+        this.name = name;
+        this.method = method;
+        this.cache = cache;
+        this.statsCounter = statsCounter;
+        this.flux = Flux.class.isAssignableFrom(returnType);
+        this.keyGenerator = CacheKeyGenerators.forMethod(name, method, localCache);
+        this.maxElements = localCache.maxElements();
+        this.maxWeightBytes = localCache.maxWeightBytes();
+        this.refreshAfterNanos = refreshAfterNanos(localCache);
+        this.freshNanos = TimeUnit.MINUTES.toNanos(localCache.durationInMinute());
+        this.jitterPercent = CacheStore.getJitterPercent();
+        this.expireAfterWriteNanos = TimeUnit.MINUTES.toNanos(expireAfterWriteMinutes(localCache));
+        this.snapshot = localCache.snapshot();
+        this.cacheEmpty = localCache.negativeTtl() > 0;
+        this.errorTtlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, localCache.errorTtl()));
+        this.cacheErrors = localCache.cacheErrors();
+        this.offHeapStore = localCache.storage() == LocalCache.Storage.OFF_HEAP ? CacheStore.getOffHeapStore() : null;
+        this.remoteCacheStore = remoteCacheStore;
+        this.remoteTtl = Duration.ofMinutes(localCache.durationInMinute());
+    }
+
+    /**
+     * <p>
+     * Resolves after how long an entry is refreshed in the background. An explicit
+     * {@code refreshAfter} wins; otherwise entries become stale, and are
+     * revalidated, once {@code durationInMinute} has elapsed when a
+     * {@code staleWhileRevalidate} grace period is configured.
+     * </p>
+     *
+     * @param localCache
+     *            the annotation holding the cache configuration.
+     * @return the refresh threshold in nanoseconds, or {@code 0} when entries are
+     *         never refreshed.
+     */
+    private static long refreshAfterNanos(LocalCache localCache) {
+        if (localCache.refreshAfter() > 0) {
+            return TimeUnit.MINUTES.toNanos(localCache.refreshAfter());
+        }
+        if (localCache.staleWhileRevalidate() > 0) {
+            return TimeUnit.MINUTES.toNanos(localCache.durationInMinute());
+        }
+        return 0;
+    }
+
+    /**
+     * <p>
+     * Returns the time after which an entry is physically removed from the cache:
+     * {@code durationInMinute} plus the {@code staleWhileRevalidate} grace
+     * period.
+     * </p>
+     *
+     * @param localCache
+     *            the annotation holding the cache configuration.
+     * @return the time to live in minutes.
+     */
+    static long expireAfterWriteMinutes(LocalCache localCache) {
+        return (long) localCache.durationInMinute() + Math.max(0, localCache.staleWhileRevalidate());
+    }
+
+    /**
+     * Returns the cache name.
+     *
+     * @return the cache name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the annotated method.
+     *
+     * @return the annotated {@link java.lang.reflect.Method}.
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the backing cache.
+     *
+     * @return the backing {@link AsyncCache}.
+     */
+    public AsyncCache<Object, CacheEntry> getCache() {
+        return cache;
+    }
+
+    /**
+     * <p>
+     * Records a hit served without going through the cache lookup methods, so the
+     * statistics of the cache count every request exactly once.
+     * </p>
+     */
+    public void recordHit() {
+        statsCounter.recordHits(1);
+    }
+
+    /**
+     * <p>
+     * Records a miss claimed without going through the cache lookup methods.
+     * </p>
+     */
+    public void recordMiss() {
+        statsCounter.recordMisses(1);
+    }
+
+    /**
+     * <p>
+     * Builds the cache key of an invocation with the key generator resolved for
+     * this method.
+     * </p>
+     *
+     * @param target
+     *            the target bean.
+     * @param args
+     *            the invocation arguments.
+     * @return the cache key, never {@code null}.
+     */
+    public Object generateKey(Object target, Object[] args) {
+        return keyGenerator.generate(target, method, args);
+    }
+
+    /**
+     * Returns the shared L2 store of a two-tier cache.
+     *
+     * @return the {@link RemoteCacheStore}, or {@code null} for a local-only cache.
+     */
+    public RemoteCacheStore getRemoteCacheStore() {
+        return remoteCacheStore;
+    }
+
+    /**
+     * Returns the upper bound of the weight of the cache, in bytes.
+     *
+     * @return the configured {@code maxWeightBytes}, or {@code 0} when the cache
+     *         is not weight-bounded on its own.
+     */
+    public long getMaxWeightBytes() {
+        return maxWeightBytes;
+    }
+
+    /**
+     * Returns how long an entry is kept after it was loaded, including the
+     * stale-while-revalidate grace period.
+     *
+     * @return the expiry in nanoseconds.
+     */
+    public long getExpireAfterWriteNanos() {
+        return expireAfterWriteNanos;
+    }
+
+    /**
+     * Returns whether the entries of the cache are written to the warm-start
+     * snapshot on shutdown.
+     *
+     * @return {@code true} if the cache is included in snapshots.
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns how long values written to the L2 store stay valid.
+     *
+     * @return the remote time to live.
+     */
+    public Duration getRemoteTtl() {
+        return remoteTtl;
+    }
+
+    /**
+     * Returns whether the method returns a {@code Flux} whose elements are cached
+     * as a list.
+     *
+     * @return {@code true} for {@code Flux} methods.
+     */
+    public boolean isFlux() {
+        return flux;
+    }
+
+    /**
+     * Returns the maximum number of elements of a cached {@code Flux} result.
+     *
+     * @return the element limit.
+     */
+    int getMaxElements() {
+        return maxElements;
+    }
+
+    /**
+     * <p>
+     * Checks whether a loaded value may be kept in the cache. Empty
+     * {@link java.util.Optional} values, unless {@code negativeTtl} is set, and
+     * {@code Flux} results with more than {@code maxElements} elements are
+     * delivered to callers but not kept.
+     * </p>
+     *
+     * @param value
+     *            the loaded value.
+     * @return {@code true} if the value may stay in the cache.
+     */
+    boolean isCacheable(Object value) {
+        if (value instanceof Optional<?> optional) {
+            return optional.isPresent() || cacheEmpty;
+        }
+        return !(flux && value instanceof List<?> list) || list.size() <= maxElements;
+    }
+
+    /**
+     * <p>
+     * Prepares a loaded entry for the cache. For an {@code OFF_HEAP} cache a
+     * cacheable value is moved to the {@link OffHeapStore}; it stays on the heap
+     * when it cannot be stored there.
+     * </p>
+     *
+     * @param entry
+     *            the loaded entry.
+     * @return the entry to cache.
+     */
+    CacheEntry store(CacheEntry entry) {
+        if (offHeapStore == null || entry.isEmptyResult() || entry.isFailure() || !isCacheable(entry.value())) {
+            return entry;
+        }
+        return offHeapStore.store(entry);
+    }
+
+    /**
+     * <p>
+     * Returns a cached entry with its value on the heap, deserializing it when
+     * it is stored off the heap.
+     * </p>
+     *
+     * @param entry
+     *            the cached entry, may be {@code null}.
+     * @return the entry with an on-heap value, or {@code null} when the entry is
+     *         {@code null} or its off-heap value was released meanwhile.
+     */
+    CacheEntry resolve(CacheEntry entry) {
+        return offHeapStore == null ? entry : OffHeapStore.resolve(entry);
+    }
+
+    /**
+     * <p>
+     * Frees the off-heap value of an entry that was never put in the cache.
+     * </p>
+     *
+     * @param entry
+     *            the discarded entry.
+     */
+    void release(CacheEntry entry) {
+        OffHeapStore.release(entry);
+    }
+
+    /**
+     * <p>
+     * Checks whether empty results are cached, see {@code negativeTtl}.
+     * </p>
+     *
+     * @return {@code true} if empty results are cached.
+     */
+    boolean cachesEmpty() {
+        return cacheEmpty;
+    }
+
+    /**
+     * <p>
+     * Checks whether an error of the method is cached, see {@code errorTtl} and
+     * {@code cacheErrors}. Errors that cannot be replayed as a new instance, see
+     * {@link CacheEntry#isReplayable(Throwable)}, are never cached.
+     * </p>
+     *
+     * @param error
+     *            the error of the method.
+     * @return {@code true} if the error is cached.
+     */
+    boolean cachesError(Throwable error) {
+        if (errorTtlNanos <= 0 || !CacheEntry.isReplayable(error)) {
+            return false;
+        }
+        if (cacheErrors.length == 0) {
+            return true;
+        }
+        for (Class<? extends Throwable> type : cacheErrors) {
+            if (type.isInstance(error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>
+     * Checks whether an entry is old enough to be refreshed in the background.
+     * The refresh is brought forward to the end of the entry's jittered fresh
+     * portion when that comes first, see {@link JitteredExpiry}, so that it
+     * starts before the entry expires.
+     * </p>
+     *
+     * @param entry
+     *            the cached entry.
+     * @return {@code true} if the entry should be refreshed.
+     */
+    boolean needsRefresh(CacheEntry entry) {
+        if (refreshAfterNanos <= 0 || entry.isEmptyResult() || entry.isFailure()) {
+            return false;
+        }
+        long staleAfterNanos = freshNanos - JitteredExpiry.jitter(entry, freshNanos, jitterPercent);
+        return System.nanoTime() - entry.loadedAt() >= Math.min(refreshAfterNanos, staleAfterNanos);
+    }
+
+    /**
+     * <p>
+     * Marks a key as being refreshed.
+     * </p>
+     *
+     * @param key
+     *            the cache key.
+     * @return {@code true} if no refresh was running for the key.
+     */
+    boolean startRefresh(Object key) {
+        return refreshing.add(key);
+    }
+
+    /**
+     * <p>
+     * Clears the refresh mark of a key.
+     * </p>
+     *
+     * @param key
+     *            the cache key.
+     */
+    void endRefresh(Object key) {
+        refreshing.remove(key);
+    }
+}
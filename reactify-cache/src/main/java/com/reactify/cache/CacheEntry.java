@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.lang.reflect.Constructor;
+import java.util.Optional;
+import reactor.core.publisher.Mono;
+
+/**
+ * <p>
+ * A value stored by {@link CacheStore} together with the time it was loaded.
+ * The load time drives refresh-ahead and stale-while-revalidate decisions made
+ * by {@link CacheAspect}.
+ * </p>
+ *
+ * <p>
+ * Empty results and failures cached by the negative and error caching policies
+ * are stored as compact sentinel values, see {@link #empty()} and
+ * {@link #failure(Throwable)}, and turned back into an empty or failed
+ * {@link Mono} by {@link #toMono()}. A cached failure only keeps the type and
+ * message of the error, and every replay fails with a new instance, so callers
+ * never share, and mutate through suppressed exceptions or a stack trace, the
+ * same {@link Throwable}, and the cache does not retain its cause chain.
+ * </p>
+ *
+ * @param value
+ *            the cached method result.
+ * @param loadedAt
+ *            the {@link System#nanoTime()} at which the value was loaded.
+ * @author hoangtien2k3
+ */
+public record CacheEntry(Object value, long loadedAt) {
+
+    /**
+     * <p>
+     * Creates an entry loaded now.
+     * </p>
+     *
+     * @param value
+     *            the cached method result.
+     * @return a new {@link CacheEntry}.
+     */
+    public static CacheEntry of(Object value) {
+        return new CacheEntry(value, System.nanoTime());
+    }
+
+    /**
+     * <p>
+     * Creates an entry, loaded now, standing for an empty {@code Mono} result.
+     * </p>
+     *
+     * @return a new negative {@link CacheEntry}.
+     */
+    public static CacheEntry empty() {
+        return new CacheEntry(Sentinel.EMPTY, System.nanoTime());
+    }
+
+    /**
+     * <p>
+     * Creates an entry, loaded now, standing for a failed load.
+     * </p>
+     *
+     * @param error
+     *            the error of the method, replayed to the callers; see
+     *            {@link #isReplayable(Throwable)}.
+     * @return a new failure {@link CacheEntry}.
+     */
+    public static CacheEntry failure(Throwable error) {
+        return new CacheEntry(
+                new Failure(Failure.CONSTRUCTORS.get(error.getClass()), error.getMessage()), System.nanoTime());
+    }
+
+    /**
+     * <p>
+     * Checks whether an error can be cached, that is whether a new instance can
+     * be built from its message through a public {@code (String)} constructor.
+     * </p>
+     *
+     * @param error
+     *            the error of the method.
+     * @return {@code true} if the error can be replayed.
+     */
+    public static boolean isReplayable(Throwable error) {
+        return Failure.CONSTRUCTORS.get(error.getClass()) != null;
+    }
+
+    /**
+     * <p>
+     * Checks whether the entry holds an empty result, either an empty
+     * {@code Mono} or an empty {@link Optional}.
+     * </p>
+     *
+     * @return {@code true} for a negative entry.
+     */
+    public boolean isEmptyResult() {
+        return value == Sentinel.EMPTY || (value instanceof Optional<?> optional && optional.isEmpty());
+    }
+
+    /**
+     * <p>
+     * Checks whether the entry holds a cached failure.
+     * </p>
+     *
+     * @return {@code true} for a failure entry.
+     */
+    public boolean isFailure() {
+        return value instanceof Failure;
+    }
+
+    /**
+     * <p>
+     * Replays the entry as the result of the cached method.
+     * </p>
+     *
+     * @return an empty {@link Mono} for an empty result, a failed one for a
+     *         cached failure, or a {@link Mono} of the value.
+     */
+    public Mono<Object> toMono() {
+        if (value == Sentinel.EMPTY) {
+            return Mono.empty();
+        }
+        if (value instanceof Failure failure) {
+            return Mono.error(failure::newError);
+        }
+        return Mono.just(value);
+    }
+
+    private enum Sentinel {
+        EMPTY
+    }
+
+    private record Failure(Constructor<?> constructor, String message) {
+
+        private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<>() {
+            @Override
+            protected Constructor<?> computeValue(Class<?> type) {
+                try {
+                    Constructor<?> constructor = type.getConstructor(String.class);
+                    return constructor.trySetAccessible() ? constructor : null;
+                } catch (NoSuchMethodException e) {
+                    return null;
+                }
+            }
+        };
+
+        private Throwable newError() {
+            try {
+                return (Throwable) constructor.newInstance(message);
+            } catch (ReflectiveOperationException e) {
+                return new IllegalStateException(
+                        "Cannot replay cached " + constructor.getDeclaringClass().getName() + ": " + message, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * An invalidation of {@link CacheStore} entries: one key of a cache, one whole
+ * cache, or every cache. Invalidations are applied locally and broadcast to the
+ * other instances through the {@link CacheInvalidationBus}.
+ * </p>
+ *
+ * @param scope
+ *            what the invalidation covers.
+ * @param cacheName
+ *            the cache name, {@code null} for {@link Scope#ALL}.
+ * @param key
+ *            the cache key, {@code null} unless the scope is {@link Scope#KEY}.
+ * @author hoangtien2k3
+ */
+public record CacheInvalidation(Scope scope, String cacheName, Object key) implements Serializable {
+
+    /**
+     * <p>
+     * Invalidates one key of a cache.
+     * </p>
+     *
+     * @param cacheName
+     *            the cache name.
+     * @param key
+     *            the cache key.
+     * @return the invalidation.
+     */
+    public static CacheInvalidation key(String cacheName, Object key) {
+        return new CacheInvalidation(Scope.KEY, cacheName, key);
+    }
+
+    /**
+     * <p>
+     * Invalidates every entry of a cache.
+     * </p>
+     *
+     * @param cacheName
+     *            the cache name.
+     * @return the invalidation.
+     */
+    public static CacheInvalidation cache(String cacheName) {
+        return new CacheInvalidation(Scope.CACHE, cacheName, null);
+    }
+
+    /**
+     * <p>
+     * Invalidates every entry of every cache.
+     * </p>
+     *
+     * @return the invalidation.
+     */
+    public static CacheInvalidation all() {
+        return new CacheInvalidation(Scope.ALL, null, null);
+    }
+
+    /**
+     * What a {@link CacheInvalidation} covers.
+     */
+    public enum Scope {
+        /**
+         * One key of one cache.
+         */
+        KEY,
+
+        /**
+         * Every entry of one cache.
+         */
+        CACHE,
+
+        /**
+         * Every entry of every cache.
+         */
+        ALL
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * <p>
+ * A batch of {@link CacheInvalidation}s exchanged through a
+ * {@link CacheInvalidationTransport}.
+ * </p>
+ *
+ * @param origin
+ *            the id of the instance that published the batch; instances ignore
+ *            their own batches.
+ * @param invalidations
+ *            the invalidations, already merged.
+ * @author hoangtien2k3
+ */
+public record CacheInvalidationBatch(String origin, List<CacheInvalidation> invalidations) implements Serializable {}
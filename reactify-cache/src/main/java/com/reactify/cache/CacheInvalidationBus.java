@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * <p>
+ * The {@code CacheInvalidationBus} class broadcasts {@link CacheStore}
+ * invalidations to the other application instances through the
+ * {@link CacheInvalidationTransport} bean, and applies the invalidations they
+ * send to the local caches.
+ * </p>
+ *
+ * <p>
+ * Outgoing invalidations are collected for
+ * {@code application.local-cache.invalidation.window} or until
+ * {@code application.local-cache.invalidation.batch-size} are pending, then
+ * merged before being sent as one batch: duplicates are dropped, key
+ * invalidations covered by a whole-cache invalidation are dropped, and any
+ * invalidate-all collapses the batch to a single entry. Mass updates therefore
+ * produce a few small messages instead of one message per key.
+ * </p>
+ *
+ * <p>
+ * Without a transport bean the bus is inactive and invalidations only apply to
+ * the local instance.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Slf4j
+public class CacheInvalidationBus implements DisposableBean {
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Sinks.Many<CacheInvalidation> pending =
+            Sinks.many().unicast().onBackpressureBuffer();
+    private final CacheInvalidationTransport transport;
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    /**
+     * Constructs a new instance of {@code CacheInvalidationBus}.
+     *
+     * @param properties
+     *            the cache engine settings.
+     * @param transportProvider
+     *            provider of the optional {@link CacheInvalidationTransport}.
+     */
+    public CacheInvalidationBus(
+            LocalCacheProperties properties, ObjectProvider<CacheInvalidationTransport> transportProvider) {
+        this.transport = transportProvider.getIfAvailable();
+        if (transport == null) {
+            return;
+        }
+        LocalCacheProperties.Invalidation config = properties.getInvalidation();
+        subscriptions.add(pending.asFlux()
+                .bufferTimeout(config.getBatchSize(), config.getWindow())
+                .map(CacheInvalidationBus::merge)
+                .concatMap(invalidations -> transport
+                        .publish(new CacheInvalidationBatch(instanceId, invalidations))
+                        .onErrorResume(e -> {
+                            log.error("Publish {} cache invalidations failed", invalidations.size(), e);
+                            return Mono.empty();
+                        }))
+                .subscribe());
+        subscriptions.add(transport.receive()
+                .filter(batch -> !instanceId.equals(batch.origin()))
+                .subscribe(
+                        batch -> batch.invalidations().forEach(CacheStore::invalidateLocally),
+                        e -> log.error("Receive cache invalidations failed", e)));
+        log.info("Cache invalidation bus started on instance {}", instanceId);
+    }
+
+    /**
+     * <p>
+     * Queues an invalidation to be broadcast with the next batch. Does nothing when
+     * no transport is configured.
+     * </p>
+     *
+     * @param invalidation
+     *            the invalidation, already applied locally.
+     */
+    void publish(CacheInvalidation invalidation) {
+        if (transport == null) {
+            return;
+        }
+        synchronized (pending) {
+            pending.tryEmitNext(invalidation);
+        }
+    }
+
+    /**
+     * <p>
+     * Merges the invalidations of one batch.
+     * </p>
+     *
+     * @param invalidations
+     *            the collected invalidations, in arrival order.
+     * @return the merged invalidations.
+     */
+    static List<CacheInvalidation> merge(List<CacheInvalidation> invalidations) {
+        Set<String> clearedCaches = new HashSet<>();
+        for (CacheInvalidation invalidation : invalidations) {
+            if (invalidation.scope() == CacheInvalidation.Scope.ALL) {
+                return List.of(invalidation);
+            }
+            if (invalidation.scope() == CacheInvalidation.Scope.CACHE) {
+                clearedCaches.add(invalidation.cacheName());
+            }
+        }
+        Set<CacheInvalidation> merged = new LinkedHashSet<>();
+        for (CacheInvalidation invalidation : invalidations) {
+            if (invalidation.scope() == CacheInvalidation.Scope.CACHE
+                    || !clearedCaches.contains(invalidation.cacheName())) {
+                merged.add(invalidation);
+            }
+        }
+        return new ArrayList<>(merged);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void destroy() {
+        pending.tryEmitComplete();
+        subscriptions.dispose();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * <p>
+ * The {@code CacheInvalidationTransport} interface is the SPI that carries
+ * {@link CacheInvalidationBatch}es between application instances, for example
+ * over Redis pub/sub, Kafka or a message broker. Register an implementation as
+ * a Spring bean to broadcast {@link CacheStore} invalidations; without one,
+ * invalidations only apply to the local instance.
+ * </p>
+ *
+ * <p>
+ * Implementations deliver every published batch to every instance, including
+ * the publisher, which filters out its own batches.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public interface CacheInvalidationTransport {
+
+    /**
+     * <p>
+     * Publishes a batch to every instance.
+     * </p>
+     *
+     * @param batch
+     *            the batch to publish.
+     * @return a {@link Mono} completing when the batch is handed to the transport.
+     */
+    Mono<Void> publish(CacheInvalidationBatch batch);
+
+    /**
+     * <p>
+     * Streams the batches published by every instance.
+     * </p>
+     *
+     * @return a hot {@link Flux} of received batches.
+     */
+    Flux<CacheInvalidationBatch> receive();
+}
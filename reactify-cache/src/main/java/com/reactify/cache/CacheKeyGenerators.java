@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * The {@code CacheKeyGenerators} class picks, once per
+ * {@link com.reactify.cache.LocalCache} method, how cache keys are built
+ * from the invocation arguments:
+ * </p>
+ * <ul>
+ * <li>the {@link KeyGenerator} bean named by {@code keyGenerator};</li>
+ * <li>the SpEL {@code keyExpression}, evaluated against the arguments
+ * ({@code #name}, {@code #p0}, {@code #a0});</li>
+ * <li>the argument itself for a single {@link String}, {@link Long},
+ * {@link Integer}, {@link UUID} or enum argument, without allocating or
+ * hashing a wrapper;</li>
+ * <li>{@link SimpleKey#EMPTY} for methods without arguments;</li>
+ * <li>{@link SimpleKeyGenerator} otherwise.</li>
+ * </ul>
+ *
+ * @author hoangtien2k3
+ */
+public final class CacheKeyGenerators {
+
+    /**
+     * Key used in place of a {@code null} single argument, since Caffeine does not
+     * accept {@code null} keys.
+     */
+    static final Object NULL_KEY = SimpleKey.EMPTY;
+
+    private static final Set<Class<?>> IDENTIFIER_TYPES = Set.of(
+            String.class, Long.class, long.class, Integer.class, int.class, UUID.class);
+
+    private static final SpelExpressionParser PARSER =
+            new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, null));
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private CacheKeyGenerators() {}
+
+    /**
+     * <p>
+     * Resolves the key generator of a cached method.
+     * </p>
+     *
+     * @param name
+     *            the cache name, used in error messages.
+     * @param method
+     *            the annotated method.
+     * @param localCache
+     *            the annotation holding the key configuration.
+     * @return the {@link KeyGenerator} to use for every invocation.
+     * @throws IllegalStateException
+     *             if both {@code keyExpression} and {@code keyGenerator} are set.
+     */
+    static KeyGenerator forMethod(String name, Method method, LocalCache localCache) {
+        boolean hasExpression = StringUtils.hasText(localCache.keyExpression());
+        boolean hasGenerator = StringUtils.hasText(localCache.keyGenerator());
+        if (hasExpression && hasGenerator) {
+            throw new IllegalStateException(
+                    "@LocalCache method " + name + " sets both keyExpression and keyGenerator");
+        }
+        if (hasGenerator) {
+            return ApplicationContextProvider.getApplicationContext()
+                    .getBean(localCache.keyGenerator(), KeyGenerator.class);
+        }
+        if (hasExpression) {
+            return expression(localCache.keyExpression());
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length == 0) {
+            return (target, m, params) -> SimpleKey.EMPTY;
+        }
+        if (parameterTypes.length == 1
+                && (IDENTIFIER_TYPES.contains(parameterTypes[0]) || parameterTypes[0].isEnum())) {
+            return (target, m, params) -> params[0] != null ? params[0] : NULL_KEY;
+        }
+        return (target, m, params) -> SimpleKeyGenerator.generateKey(params);
+    }
+
+    private static KeyGenerator expression(String keyExpression) {
+        Expression expression = PARSER.parseExpression(keyExpression);
+        return (target, method, params) -> {
+            Object key = expression.getValue(
+                    new MethodBasedEvaluationContext(target, method, params, PARAMETER_NAMES));
+            return key != null ? key : NULL_KEY;
+        };
+    }
+}
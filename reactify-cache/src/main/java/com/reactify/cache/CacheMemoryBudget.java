@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * The {@code CacheMemoryBudget} class shares one global memory budget, in
+ * bytes, between the weight-bounded caches of {@link CacheStore}. Every cache
+ * is guaranteed an equal slice of a configurable minimum share; the remaining
+ * budget is redistributed on each rebalance in proportion to the hit rate each
+ * cache achieved since the previous rebalance, so caches that make good use of
+ * their memory grow, and caches that mostly miss, or are not used, shrink while
+ * the total stays within the budget. Sharing by hit rate rather than hit count
+ * keeps a busy cache with a poor hit rate from taking memory that a smaller,
+ * effective cache would use better.
+ * </p>
+ *
+ * <p>
+ * A cache whose {@code maxWeightBytes} is set never receives more than that
+ * value.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Slf4j
+final class CacheMemoryBudget {
+
+    private final long budgetBytes;
+    private final int minSharePercent;
+    private final Map<CacheDefinition, CacheStats> lastStats = new IdentityHashMap<>();
+
+    /**
+     * Constructs a new instance of {@code CacheMemoryBudget}.
+     *
+     * @param budgetBytes
+     *            the total weight shared by all caches.
+     * @param minSharePercent
+     *            the percentage of the budget split evenly between caches
+     *            regardless of their hit rate.
+     */
+    CacheMemoryBudget(long budgetBytes, int minSharePercent) {
+        this.budgetBytes = budgetBytes;
+        this.minSharePercent = Math.max(0, Math.min(100, minSharePercent));
+    }
+
+    /**
+     * Returns the total budget.
+     *
+     * @return the budget in bytes.
+     */
+    long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * <p>
+     * Recomputes the maximum weight of every weight-bounded cache.
+     * </p>
+     *
+     * @param definitions
+     *            the registered caches.
+     */
+    synchronized void rebalance(Collection<CacheDefinition> definitions) {
+        List<CacheDefinition> weighted = new ArrayList<>();
+        for (CacheDefinition definition : definitions) {
+            if (eviction(definition).filter(Policy.Eviction::isWeighted).isPresent()) {
+                weighted.add(definition);
+            }
+        }
+        if (weighted.isEmpty()) {
+            return;
+        }
+        int count = weighted.size();
+        long floor = budgetBytes * minSharePercent / 100 / count;
+        long distributable = budgetBytes - floor * count;
+        double[] hitRates = new double[count];
+        double totalHitRate = 0;
+        for (int i = 0; i < count; i++) {
+            CacheDefinition definition = weighted.get(i);
+            CacheStats stats = definition.getCache().synchronous().stats();
+            CacheStats previous = lastStats.put(definition, stats);
+            CacheStats interval = previous == null ? stats : stats.minus(previous);
+            // Caffeine reports a hit rate of 1 for a cache without requests
+            hitRates[i] = interval.requestCount() == 0 ? 0 : interval.hitRate();
+            totalHitRate += hitRates[i];
+        }
+        for (int i = 0; i < count; i++) {
+            CacheDefinition definition = weighted.get(i);
+            long share = floor
+                    + (totalHitRate == 0
+                            ? distributable / count
+                            : (long) (distributable * hitRates[i] / totalHitRate));
+            if (definition.getMaxWeightBytes() > 0) {
+                share = Math.min(share, definition.getMaxWeightBytes());
+            }
+            long maximum = Math.max(1, share);
+            eviction(definition).ifPresent(eviction -> eviction.setMaximum(maximum));
+        }
+        log.debug("Rebalanced cache memory budget of {} bytes over {} caches", budgetBytes, count);
+    }
+
+    private static Optional<Policy.Eviction<Object, CacheEntry>> eviction(CacheDefinition definition) {
+        return definition.getCache().synchronous().policy().eviction();
+    }
+}
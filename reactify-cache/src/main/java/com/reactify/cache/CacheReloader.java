@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * <p>
+ * The {@code CacheReloader} class reloads the cache of an auto-loaded method
+ * after its entry was evicted. Each reload is delayed by a random amount of time
+ * up to the configured spread, so caches evicted together, or on every instance
+ * at once, are not reloaded in a single burst against the downstream services.
+ * At most one reload per method is pending at any time.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Slf4j
+public class CacheReloader {
+
+    private final long maxDelayMillis;
+    private final Set<Method> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a new instance of {@code CacheReloader}.
+     *
+     * @param spread
+     *            the maximum delay of a reload; {@link Duration#ZERO} reloads
+     *            immediately.
+     */
+    public CacheReloader(Duration spread) {
+        this.maxDelayMillis = Math.max(0, spread.toMillis());
+    }
+
+    /**
+     * <p>
+     * Schedules the reload of a method, unless one is already pending.
+     * </p>
+     *
+     * @param method
+     *            the auto-loaded method.
+     */
+    public void schedule(Method method) {
+        if (!pending.add(method)) {
+            return;
+        }
+        long delay = maxDelayMillis > 0 ? ThreadLocalRandom.current().nextLong(maxDelayMillis + 1) : 0;
+        Mono.delay(Duration.ofMillis(delay))
+                .doOnNext(tick -> pending.remove(method))
+                .then(CacheUtils.load(method))
+                .subscribe(null, exception -> {
+                    pending.remove(method);
+                    log.error(
+                            "Error when reload cache {}.{}",
+                            method.getDeclaringClass().getSimpleName(),
+                            method.getName(),
+                            exception);
+                });
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * The {@code CacheSnapshotStore} class writes the entries of the
+ * {@link CacheStore} caches flagged with {@code snapshot = true} to a local
+ * file on graceful shutdown, and restores them on startup, before auto-loading
+ * runs, so a restarted instance does not start with cold caches.
+ * </p>
+ *
+ * <p>
+ * The file is written through a {@link FileChannel} to a temporary file that
+ * atomically replaces the previous snapshot, and is read back through a
+ * memory-mapped buffer. It starts with a header holding a format version, the
+ * application version and the creation time; a snapshot written by another
+ * format or application version, or older than the configured maximum age, is
+ * dropped. The application version defaults to the build version, see
+ * {@link CacheStore}, or to a fingerprint of the classes declaring the
+ * snapshot-enabled methods. Each entry is stored with its age, so entries that
+ * expired while the application was down are skipped and restored entries keep
+ * their original load time for refresh and expiry decisions.
+ * </p>
+ *
+ * <p>
+ * Keys and values are written in a compact tagged encoding: strings, boxed
+ * primitives, {@link UUID}s and immutable lists of them are stored directly,
+ * and only other objects fall back to Java serialization. Empty results and
+ * cached failures are skipped, and so are entries that cannot be encoded.
+ * </p>
+ *
+ * <p>
+ * Since the file is read back with Java deserialization, it is only trusted
+ * when it is private to the application: on POSIX file systems the directory
+ * and file are created readable by their owner only, and a snapshot that is
+ * not owned by the current user or that others may write is ignored.
+ * Deserialization goes through an {@link ObjectInputFilter} rejecting every
+ * class except {@code java.lang}, {@code java.util}, {@code java.time},
+ * {@code java.math}, Spring's {@code SimpleKey} and the patterns of
+ * {@code allowedClasses}.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Slf4j
+final class CacheSnapshotStore {
+
+    private static final int MAGIC = 0x52434353;
+    private static final int FORMAT_VERSION = 2;
+    private static final String LIMITS = "maxdepth=64;maxarray=10000000;maxrefs=10000000";
+    private static final List<String> ALLOWED_CLASSES = List.of(
+            "java.lang.*",
+            "java.util.*",
+            "java.time.*",
+            "java.math.*",
+            "org.springframework.cache.interceptor.SimpleKey");
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_LONG = 2;
+    private static final byte TAG_INTEGER = 3;
+    private static final byte TAG_BOOLEAN = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_UUID = 6;
+    private static final byte TAG_LIST = 7;
+    private static final byte TAG_SERIALIZED = 8;
+
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+
+    private final Path file;
+    private final String version;
+    private final Duration maxAge;
+    private final ObjectInputFilter filter;
+    private final boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    /**
+     * Constructs a new instance of {@code CacheSnapshotStore}.
+     *
+     * @param settings
+     *            the snapshot settings.
+     * @param version
+     *            the application version stamped in the snapshot, or
+     *            {@code null} to use a fingerprint of the cached classes.
+     */
+    CacheSnapshotStore(LocalCacheProperties.Snapshot settings, String version) {
+        this.file = Path.of(settings.getFile());
+        this.version = StringUtils.hasText(version) ? version : null;
+        this.maxAge = settings.getMaxAge();
+        List<String> allowed = new ArrayList<>(ALLOWED_CLASSES);
+        settings.getAllowedClasses().stream().filter(StringUtils::hasText).forEach(allowed::add);
+        this.filter = ObjectInputFilter.Config.createFilter(LIMITS + ";" + String.join(";", allowed) + ";!*");
+    }
+
+    /**
+     * <p>
+     * Writes the completed entries of the snapshot-enabled caches.
+     * </p>
+     *
+     * @param definitions
+     *            the registered caches.
+     */
+    void write(Collection<CacheDefinition> definitions) {
+        List<CacheDefinition> selected =
+                definitions.stream().filter(CacheDefinition::isSnapshot).toList();
+        if (selected.isEmpty()) {
+            return;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int written = 0;
+        try {
+            createPrivateDirectories(file.toAbsolutePath().getParent());
+            Files.deleteIfExists(temp);
+            if (posix) {
+                Files.createFile(temp, PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE));
+            }
+            try (FileChannel channel = FileChannel.open(
+                            temp,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING,
+                            StandardOpenOption.WRITE);
+                    DataOutputStream out = new DataOutputStream(
+                            new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, version(selected));
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(selected.size());
+                long now = System.nanoTime();
+                ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+                DataOutputStream recordOut = new DataOutputStream(record);
+                for (CacheDefinition definition : selected) {
+                    writeString(out, definition.getName());
+                    for (Map.Entry<Object, CompletableFuture<CacheEntry>> entry :
+                            definition.getCache().asMap().entrySet()) {
+                        CacheEntry value = definition.resolve(CacheAspect.completedEntry(entry.getValue()));
+                        if (value == null || value.isEmptyResult() || value.isFailure()) {
+                            continue;
+                        }
+                        record.reset();
+                        if (encode(recordOut, entry.getKey()) && encode(recordOut, value.value())) {
+                            out.writeInt(record.size());
+                            record.writeTo(out);
+                            out.writeLong(now - value.loadedAt());
+                            written++;
+                        }
+                    }
+                    out.writeInt(-1);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote {} entries of {} caches to snapshot {}", written, selected.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write cache snapshot {}", file, e);
+        }
+    }
+
+    /**
+     * <p>
+     * Restores a snapshot into the registered caches, dropping it when it is not
+     * private to the application, does not match the current format and
+     * application version, or is too old.
+     * </p>
+     *
+     * @param caches
+     *            the registered caches keyed by name.
+     */
+    void restore(Map<String, CacheDefinition> caches) {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        int restored = 0;
+        try {
+            if (!isPrivate(file)) {
+                log.warn("Cache snapshot {} is not private to user {}, ignore it", file, currentUser());
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    log.warn("Cache snapshot {} is too large, ignore it", file);
+                    return;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                    log.info("Cache snapshot {} has an unknown format, ignore it", file);
+                    return;
+                }
+                String snapshotVersion = readString(buffer);
+                String currentVersion = version(caches.values().stream()
+                        .filter(CacheDefinition::isSnapshot)
+                        .toList());
+                if (!currentVersion.equals(snapshotVersion)) {
+                    log.info("Cache snapshot {} was written by version {}, ignore it", file, snapshotVersion);
+                    return;
+                }
+                long downtimeNanos = TimeUnit.MILLISECONDS.toNanos(
+                        Math.max(0, System.currentTimeMillis() - buffer.getLong()));
+                if (downtimeNanos > maxAge.toNanos()) {
+                    log.info("Cache snapshot {} is older than {}, ignore it", file, maxAge);
+                    return;
+                }
+                int cacheCount = buffer.getInt();
+                long now = System.nanoTime();
+                for (int i = 0; i < cacheCount; i++) {
+                    CacheDefinition definition = caches.get(readString(buffer));
+                    for (int length = buffer.getInt(); length >= 0; length = buffer.getInt()) {
+                        checkLength(buffer, length, "record length");
+                        ByteBuffer record = buffer.slice(buffer.position(), length);
+                        buffer.position(buffer.position() + length);
+                        long age = buffer.getLong() + downtimeNanos;
+                        if (definition == null
+                                || !definition.isSnapshot()
+                                || age >= definition.getExpireAfterWriteNanos()) {
+                            continue;
+                        }
+                        Object[] entry = decodeEntry(record);
+                        if (entry != null && definition.isCacheable(entry[1])) {
+                            CacheEntry value = definition.store(new CacheEntry(entry[1], now - age));
+                            if (definition
+                                            .getCache()
+                                            .asMap()
+                                            .putIfAbsent(entry[0], CompletableFuture.completedFuture(value))
+                                    == null) {
+                                restored++;
+                            } else {
+                                definition.release(value);
+                            }
+                        }
+                    }
+                }
+            }
+            log.info("Restored {} cache entries from snapshot {}", restored, file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to restore cache snapshot {}", file, e);
+        }
+    }
+
+    /**
+     * Returns the configured version, or a fingerprint of the classes declaring
+     * the snapshot-enabled methods, which changes whenever they are rebuilt.
+     */
+    private String version(List<CacheDefinition> definitions) {
+        if (version != null) {
+            return version;
+        }
+        CRC32 crc = new CRC32();
+        definitions.stream()
+                .map(definition -> definition.getMethod().getDeclaringClass())
+                .distinct()
+                .sorted(Comparator.comparing(Class::getName))
+                .forEach(type -> {
+                    crc.update(type.getName().getBytes(StandardCharsets.UTF_8));
+                    crc.update(Long.toString(lastModified(type)).getBytes(StandardCharsets.UTF_8));
+                });
+        return "classes-" + Long.toHexString(crc.getValue());
+    }
+
+    private static long lastModified(Class<?> type) {
+        String name = type.getName();
+        URL resource = type.getResource(name.substring(name.lastIndexOf('.') + 1) + ".class");
+        if (resource == null) {
+            return 0;
+        }
+        try {
+            return resource.openConnection().getLastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void createPrivateDirectories(Path directory) throws IOException {
+        if (Files.isDirectory(directory)) {
+            return;
+        }
+        if (posix) {
+            FileAttribute<Set<PosixFilePermission>> ownerOnly =
+                    PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY);
+            Files.createDirectories(directory, ownerOnly);
+        } else {
+            Files.createDirectories(directory);
+        }
+    }
+
+    private boolean isPrivate(Path path) throws IOException {
+        if (!posix) {
+            return true;
+        }
+        if (!currentUser().equals(Files.getOwner(path).getName())) {
+            return false;
+        }
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path);
+        if (permissions.contains(PosixFilePermission.GROUP_WRITE)
+                || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+            return false;
+        }
+        Set<PosixFilePermission> parent =
+                Files.getPosixFilePermissions(path.toAbsolutePath().getParent());
+        return !parent.contains(PosixFilePermission.GROUP_WRITE) && !parent.contains(PosixFilePermission.OTHERS_WRITE);
+    }
+
+    private static String currentUser() {
+        return System.getProperty("user.name");
+    }
+
+    /**
+     * Encodes an object, returning {@code false} when it can be neither encoded
+     * nor serialized.
+     */
+    private static boolean encode(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(TAG_STRING);
+            writeString(out, string);
+        } else if (value instanceof Long number) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(number);
+        } else if (value instanceof Integer number) {
+            out.writeByte(TAG_INTEGER);
+            out.writeInt(number);
+        } else if (value instanceof Boolean flag) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean(flag);
+        } else if (value instanceof Double number) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(number);
+        } else if (value instanceof UUID uuid) {
+            out.writeByte(TAG_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof List<?> list && isImmutableList(list)) {
+            out.writeByte(TAG_LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                if (!encode(out, element)) {
+                    return false;
+                }
+            }
+        } else {
+            byte[] bytes = serialize(value);
+            if (bytes == null) {
+                return false;
+            }
+            out.writeByte(TAG_SERIALIZED);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        return true;
+    }
+
+    private static boolean isImmutableList(List<?> list) {
+        String type = list.getClass().getName();
+        return type.startsWith("java.util.ImmutableCollections$List")
+                || type.equals("java.util.Collections$UnmodifiableRandomAccessList");
+    }
+
+    private Object[] decodeEntry(ByteBuffer record) {
+        try {
+            return new Object[] {decode(record), decode(record)};
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            log.debug("Skip unreadable cache snapshot entry", e);
+            return null;
+        }
+    }
+
+    private Object decode(ByteBuffer in) throws IOException, ClassNotFoundException {
+        byte tag = in.get();
+        return switch (tag) {
+            case TAG_NULL -> null;
+            case TAG_STRING -> readString(in);
+            case TAG_LONG -> in.getLong();
+            case TAG_INTEGER -> in.getInt();
+            case TAG_BOOLEAN -> in.get() != 0;
+            case TAG_DOUBLE -> in.getDouble();
+            case TAG_UUID -> new UUID(in.getLong(), in.getLong());
+            case TAG_LIST -> {
+                int size = checkLength(in, in.getInt(), "list size");
+                Object[] elements = new Object[size];
+                for (int i = 0; i < size; i++) {
+                    elements[i] = decode(in);
+                }
+                yield List.of(elements);
+            }
+            case TAG_SERIALIZED -> {
+                byte[] bytes = new byte[checkLength(in, in.getInt(), "object length")];
+                in.get(bytes);
+                yield deserialize(bytes);
+            }
+            default -> throw new IOException("Unknown snapshot tag " + tag);
+        };
+    }
+
+    private static byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            log.debug("Skip non serializable cache entry {}", value.getClass().getName(), e);
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in =
+                new ConfigurableObjectInputStream(new ByteArrayInputStream(bytes), ClassUtils.getDefaultClassLoader())) {
+            in.setObjectInputFilter(filter);
+            return in.readObject();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[checkLength(buffer, buffer.getInt(), "string length")];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rejects a length read from the snapshot that does not fit in the rest of
+     * the buffer, so a corrupt file cannot trigger a huge allocation.
+     */
+    private static int checkLength(ByteBuffer buffer, int length, String what) throws IOException {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Invalid snapshot " + what + " " + length);
+        }
+        return length;
+    }
+}
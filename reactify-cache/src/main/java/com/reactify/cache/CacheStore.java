@@ -15,108 +15,636 @@
  */
 package com.reactify.cache;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalListener;
 import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
 import java.lang.reflect.Method;
+import java.net.URL;
 import java.time.Duration;
-import java.util.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.info.BuildProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.stereotype.Component;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * <p>
- * CacheStore class.
+ * The {@code CacheStore} class is responsible for managing and initializing
+ * caches for methods annotated with
+ * {@link com.reactify.cache.LocalCache}. It uses the Caffeine caching
+ * library to provide an efficient caching mechanism, supporting features like
+ * auto-loading of cache entries based on method annotations.
+ * </p>
+ *
+ * <p>
+ * This class implements
+ * {@link org.springframework.context.ApplicationContextAware} to gain access to
+ * the Spring application context, allowing it to dynamically discover and
+ * initialize caches at startup. It automatically loads caches for methods that
+ * have the {@code @LocalCache} annotation and meet the specified criteria.
+ * </p>
+ *
+ * <p>
+ * The cache initialization process occurs during the post-construct phase,
+ * where it reads the compile-time {@link LocalCacheIndex} of methods with the
+ * {@code @LocalCache} annotation, adds a Reflections scan of the classpath roots
+ * of the application package that carry no index, and configures the caches
+ * according to the parameters specified in the annotation.
+ * </p>
+ *
+ * <p>
+ * The class also listens for context refresh events to trigger the auto-loading
+ * of caches, ensuring that the caches are populated with initial data as
+ * needed.
+ * </p>
+ *
+ * <p>
+ * Entries can be invalidated explicitly by key, by cache or all at once. An
+ * invalidation applies to the local caches and to the shared
+ * {@link RemoteCacheStore} tier, and is broadcast to the other instances through
+ * the {@link CacheInvalidationBus}.
+ * </p>
+ *
+ * <p>
+ * The caches are stored in a concurrent registry keyed both by cache name and by
+ * {@link java.lang.reflect.Method}, so the aspect resolves a cache with a single
+ * lookup per invocation. Methods that were not discovered at startup are
+ * registered lazily the first time they are invoked.
+ * </p>
+ *
+ * <p>
+ * Entries expire through a {@link JitteredExpiry}, which shortens each lifetime
+ * by a random jitter, and evicted auto-loaded entries are reloaded through a
+ * {@link CacheReloader} after a random delay, so entries loaded together do not
+ * expire and reload together.
+ * </p>
+ *
+ * <p>
+ * Caches are bounded by entry count, or by estimated size in bytes when
+ * {@code maxWeightBytes} is set. When a global memory budget is configured
+ * through {@link LocalCacheProperties}, every cache becomes weight-bounded and
+ * the {@link CacheMemoryBudget} periodically shifts capacity towards the caches
+ * with the most hits.
+ * </p>
+ *
+ * <p>
+ * When snapshots are enabled, caches declared with {@code snapshot = true} are
+ * written to a {@link CacheSnapshotStore} file on shutdown and restored at
+ * startup, before auto-loading runs.
  * </p>
  *
  * @author hoangtien2k3
  */
 @Slf4j
-@Component
-public class CacheStore implements ApplicationContextAware {
+public class CacheStore implements ApplicationContextAware, DisposableBean {
 
-    private static final HashMap<String, Cache<Object, Object>> caches = new HashMap<>();
-    private static final Set<Method> autoLoadMethods = new HashSet<>();
+    private static final Map<String, CacheDefinition> caches = new ConcurrentHashMap<>();
+    private static final Map<Method, CacheDefinition> methodCaches = new ConcurrentHashMap<>();
+    private static final ClassValue<Map<Method, CacheDefinition>> targetCaches = new ClassValue<>() {
+        @Override
+        protected Map<Method, CacheDefinition> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final Map<Method, String> autoLoadMethods = new ConcurrentHashMap<>();
+    private static final List<Consumer<CacheDefinition>> registrationListeners = new CopyOnWriteArrayList<>();
+    private static final List<Consumer<CacheWarmup.Result>> autoLoadListeners = new CopyOnWriteArrayList<>();
+    private static final AtomicBoolean autoLoadStarted = new AtomicBoolean();
     private static String reflectionPath;
+    private static RemoteCacheStore remoteCacheStore;
+    private static CacheInvalidationBus invalidationBus;
+    private static CacheMemoryBudget memoryBudget;
+    private static Disposable budgetRebalancer;
+    private static CacheSnapshotStore snapshotStore;
+    private static OffHeapStore offHeapStore = new OffHeapStore(new LocalCacheProperties.OffHeap());
+    private static LocalCacheProperties.Expiration expiration = new LocalCacheProperties.Expiration();
+    private static CacheReloader reloader = new CacheReloader(expiration.getReloadSpread());
+    private static CacheWarmup warmup = new CacheWarmup(
+            new LocalCacheProperties.AutoLoad(), result -> autoLoadListeners.forEach(l -> l.accept(result)));
 
+    /**
+     * Constructs a new instance of {@code CacheStore}.
+     */
+    public CacheStore() {}
+
+    /**
+     * <p>
+     * Initializes the cache store by discovering methods annotated with
+     * {@link LocalCache} and creating caches according to the annotation's
+     * parameters. This method is called after the bean's construction.
+     * </p>
+     */
     @PostConstruct
     private static void init() {
         log.info("Start initializing cache");
-        Reflections reflections = new Reflections(reflectionPath, Scanners.MethodsAnnotated);
-        Set<Method> methods =
-                reflections.get(Scanners.MethodsAnnotated.with(LocalCache.class).as(Method.class));
-        for (Method method : methods) {
-            String className = method.getDeclaringClass().getSimpleName();
-            LocalCache localCache = method.getAnnotation(LocalCache.class);
-            int maxRecord = localCache.maxRecord();
-            int durationInMinute = localCache.durationInMinute();
-            String cacheName = className + "." + method.getName();
-            boolean autoLoad = localCache.autoCache();
-            Cache<Object, Object> cache;
-            if (autoLoad && (method.getParameterCount() == 0)) {
-                cache = Caffeine.newBuilder()
-                        .scheduler(Scheduler.systemScheduler())
-                        .expireAfterWrite(Duration.ofMinutes(durationInMinute))
-                        .recordStats()
-                        .maximumSize(maxRecord)
-                        .removalListener(new CustomizeRemovalListener(method))
-                        .build();
-                autoLoadMethods.add(method);
-            } else {
-                cache = Caffeine.newBuilder()
-                        .expireAfterWrite(Duration.ofMinutes(durationInMinute))
-                        .recordStats()
-                        .maximumSize(maxRecord)
-                        .build();
-            }
-            caches.put(cacheName, cache);
+        for (Method method : findLocalCacheMethods()) {
+            methodCaches.computeIfAbsent(method, m -> register(m, findLocalCache(m)));
         }
         log.info("Finish initializing {} cache", caches.size());
+        rebalanceMemoryBudget();
+        if (snapshotStore != null) {
+            snapshotStore.restore(caches);
+        }
+    }
+
+    /**
+     * <p>
+     * Finds the {@link LocalCache} methods from the compile-time index, merged
+     * with a scan of the classpath roots of the application package that carry
+     * no index. Indexes only cover the roots they were generated into, so an
+     * index in a dependency does not hide the unindexed methods of the
+     * application.
+     * </p>
+     *
+     * @return the annotated methods.
+     */
+    @SuppressWarnings("deprecation")
+    private static Set<Method> findLocalCacheMethods() {
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        Set<Method> methods = new HashSet<>();
+        Optional<Set<Method>> indexed = LocalCacheIndex.load(classLoader);
+        Set<String> indexedRoots = Set.of();
+        if (indexed.isPresent()) {
+            log.info("Found {} cache methods in {}", indexed.get().size(), LocalCacheIndex.INDEX_LOCATION);
+            methods.addAll(indexed.get());
+            indexedRoots = LocalCacheIndex.roots(classLoader);
+        }
+        ConfigurationBuilder configuration = new ConfigurationBuilder()
+                .forPackage(reflectionPath, classLoader)
+                .filterInputsBy(new FilterBuilder().includePackage(reflectionPath))
+                .setScanners(Scanners.MethodsAnnotated);
+        Set<String> skipped = indexedRoots;
+        Set<URL> unindexed = configuration.getUrls().stream()
+                .filter(url -> !skipped.contains(LocalCacheIndex.normalizeRoot(url)))
+                .collect(Collectors.toSet());
+        if (unindexed.isEmpty()) {
+            return methods;
+        }
+        log.info("Scanning package {} in {} classpath roots without cache index", reflectionPath, unindexed.size());
+        Reflections reflections = new Reflections(configuration.setUrls(unindexed));
+        methods.addAll(reflections.get(Scanners.MethodsAnnotated.with(LocalCache.class).as(Method.class)));
+        methods.addAll(reflections.get(Scanners.MethodsAnnotated.with(com.reactify.annotations.LocalCache.class)
+                .as(Method.class)));
+        return methods;
     }
 
     /**
      * <p>
-     * getCache.
+     * Resolves the cache configuration of a method, merging the attributes of the
+     * deprecated {@code com.reactify.annotations.LocalCache} alias into a
+     * {@link LocalCache}.
+     * </p>
+     *
+     * @param method
+     *            the annotated method.
+     * @return the merged annotation.
+     * @throws IllegalStateException
+     *             if the method carries no cache annotation.
+     */
+    private static LocalCache findLocalCache(Method method) {
+        LocalCache localCache = AnnotatedElementUtils.findMergedAnnotation(method, LocalCache.class);
+        if (localCache == null) {
+            throw new IllegalStateException("No @LocalCache annotation found on " + method);
+        }
+        return localCache;
+    }
+
+    /**
+     * <p>
+     * Retrieves a cache by its name.
      * </p>
      *
      * @param key
-     *            a {@link String} object
-     * @return a {@link Cache} object
+     *            a {@link java.lang.String} object representing the cache name.
+     * @return a synchronous {@link com.github.benmanes.caffeine.cache.Cache} view
+     *         of the cache corresponding to the specified name, holding
+     *         {@link CacheEntry} values, or {@code null} if no cache exists for the
+     *         given key.
+     */
+    public static Cache<Object, CacheEntry> getCache(String key) {
+        CacheDefinition definition = caches.get(key);
+        return definition == null ? null : definition.getCache().synchronous();
+    }
+
+    /**
+     * <p>
+     * Returns every registered cache.
+     * </p>
+     *
+     * @return an unmodifiable view of the cache definitions.
+     */
+    public static Collection<CacheDefinition> getDefinitions() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+
+    /**
+     * <p>
+     * Registers a callback invoked with every cache registered from now on, and
+     * immediately with the caches already registered.
+     * </p>
+     *
+     * @param listener
+     *            the callback, typically binding the cache to a metrics registry.
      */
-    public static Cache<Object, Object> getCache(String key) {
-        return caches.get(key);
+    public static void onRegistration(Consumer<CacheDefinition> listener) {
+        registrationListeners.add(listener);
+        caches.values().forEach(listener);
     }
 
     /**
      * <p>
-     * autoLoad.
+     * Registers a callback invoked each time the auto-load of a cache finishes,
+     * successfully or not.
+     * </p>
+     *
+     * @param listener
+     *            the callback, typically recording the load time.
+     */
+    public static void onAutoLoad(Consumer<CacheWarmup.Result> listener) {
+        autoLoadListeners.add(listener);
+    }
+
+    /**
+     * <p>
+     * Returns the auto-load pipeline, reporting the warm-up state of every
+     * auto-loaded cache.
+     * </p>
+     *
+     * @return the {@link CacheWarmup}.
+     */
+    public static CacheWarmup getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * <p>
+     * Resolves the cache definition of an advised method, registering it on first
+     * use.
+     * The lookup is keyed by the target class and the
+     * {@link java.lang.reflect.Method} instance, so two beans implementing the
+     * same interface method get the caches of their own implementations, and the
+     * hot path performs no string building; the most specific method and the
+     * cache name are only computed once per target class and method.
+     * </p>
+     *
+     * @param method
+     *            the advised {@link java.lang.reflect.Method}, possibly declared on
+     *            an interface.
+     * @param targetClass
+     *            the class of the target bean, used to resolve the most specific
+     *            method implementation.
+     * @return the {@link CacheDefinition} for the method, never {@code null}.
+     */
+    public static CacheDefinition getDefinition(Method method, Class<?> targetClass) {
+        Map<Method, CacheDefinition> definitions = targetCaches.get(targetClass);
+        CacheDefinition definition = definitions.get(method);
+        if (definition != null) {
+            return definition;
+        }
+        int registered = caches.size();
+        Method specific = ClassUtils.getMostSpecificMethod(method, ClassUtils.getUserClass(targetClass));
+        definition = definitions.computeIfAbsent(
+                method, m -> methodCaches.computeIfAbsent(specific, s -> register(s, findLocalCache(s))));
+        if (caches.size() != registered) {
+            rebalanceMemoryBudget();
+        }
+        return definition;
+    }
+
+    /**
+     * <p>
+     * Registers the cache of a {@link LocalCache} method under its
+     * {@code SimpleClassName.methodName} name, reusing an already registered cache
+     * with the same name.
+     * </p>
+     *
+     * @param method
+     *            the annotated method.
+     * @param localCache
+     *            the annotation holding the cache configuration.
+     * @return the registered cache definition.
+     */
+    private static CacheDefinition register(Method method, LocalCache localCache) {
+        String cacheName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        return caches.computeIfAbsent(cacheName, name -> createDefinition(name, method, localCache));
+    }
+
+    private static CacheDefinition createDefinition(String name, Method method, LocalCache localCache) {
+        RemoteCacheStore remote = null;
+        if (localCache.tier() == LocalCache.Tier.LOCAL_AND_REMOTE) {
+            if (remoteCacheStore == null) {
+                log.warn("Cache {} uses a remote tier but no RemoteCacheStore bean is defined, cache locally only", name);
+            }
+            remote = remoteCacheStore;
+        }
+        StatsCounter statsCounter = new ConcurrentStatsCounter();
+        CacheDefinition definition = new CacheDefinition(
+                name, method, localCache, buildCache(method, localCache, statsCounter), statsCounter, remote);
+        if (localCache.autoCache() && (method.getParameterCount() == 0)) {
+            autoLoadMethods.put(method, name);
+        }
+        registrationListeners.forEach(listener -> listener.accept(definition));
+        return definition;
+    }
+
+    private static AsyncCache<Object, CacheEntry> buildCache(
+            Method method, LocalCache localCache, StatsCounter statsCounter) {
+        long expireAfterWriteNanos = TimeUnit.MINUTES.toNanos(CacheDefinition.expireAfterWriteMinutes(localCache));
+        Caffeine<Object, CacheEntry> builder = Caffeine.newBuilder()
+                .recordStats(() -> statsCounter)
+                .expireAfter(new JitteredExpiry(
+                        expireAfterWriteNanos,
+                        TimeUnit.MINUTES.toNanos(Math.max(0, localCache.staleWhileRevalidate())),
+                        TimeUnit.SECONDS.toNanos(Math.max(0, localCache.negativeTtl())),
+                        TimeUnit.SECONDS.toNanos(Math.max(0, localCache.errorTtl())),
+                        expiration.getJitterPercent()));
+        long maxWeight = localCache.storage() == LocalCache.Storage.OFF_HEAP ? 0 : maximumWeight(localCache);
+        if (maxWeight > 0) {
+            return buildCache(method, localCache, builder.weigher(weigher(localCache)).maximumWeight(maxWeight));
+        }
+        return buildCache(method, localCache, builder.maximumSize(localCache.maxRecord()));
+    }
+
+    private static AsyncCache<Object, CacheEntry> buildCache(
+            Method method, LocalCache localCache, Caffeine<Object, ? super CacheEntry> builder) {
+        boolean autoLoad = localCache.autoCache() && (method.getParameterCount() == 0);
+        boolean offHeap = localCache.storage() == LocalCache.Storage.OFF_HEAP;
+        if (!autoLoad && !offHeap) {
+            return builder.buildAsync();
+        }
+        RemovalListener<Object, Object> reload = autoLoad ? new CustomizeRemovalListener(method, reloader) : null;
+        RemovalListener<Object, Object> listener = (key, value, cause) -> {
+            OffHeapStore.release(value);
+            if (reload != null) {
+                reload.onRemoval(key, value, cause);
+            }
+        };
+        return builder.scheduler(Scheduler.systemScheduler())
+                .removalListener(listener)
+                .buildAsync();
+    }
+
+    /**
+     * <p>
+     * Returns the store holding the values of {@code OFF_HEAP} caches.
+     * </p>
+     *
+     * @return the {@link OffHeapStore}.
+     */
+    static OffHeapStore getOffHeapStore() {
+        return offHeapStore;
+    }
+
+    /**
+     * <p>
+     * Returns the maximum expiry jitter, in percent of the fresh portion of the
+     * time-to-live.
+     * </p>
+     *
+     * @return the jitter percentage.
+     */
+    static int getJitterPercent() {
+        return Math.max(0, Math.min(100, expiration.getJitterPercent()));
+    }
+
+    /**
+     * <p>
+     * Computes the initial maximum weight of a cache: its own
+     * {@code maxWeightBytes}, capped by the global memory budget when one is
+     * configured. The budget later redistributes the weight between caches.
+     * </p>
+     *
+     * @param localCache
+     *            the annotation holding the cache configuration.
+     * @return the maximum weight in bytes, or {@code 0} when the cache is bounded
+     *         by entry count only.
+     */
+    private static long maximumWeight(LocalCache localCache) {
+        long maxWeightBytes = localCache.maxWeightBytes();
+        if (memoryBudget == null) {
+            return Math.max(0, maxWeightBytes);
+        }
+        long budget = memoryBudget.getBudgetBytes();
+        return maxWeightBytes > 0 ? Math.min(maxWeightBytes, budget) : budget;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Weigher<Object, CacheEntry> weigher(LocalCache localCache) {
+        if (localCache.weigher().isEmpty()) {
+            return new EstimatedSizeWeigher();
+        }
+        Weigher<Object, Object> custom = ApplicationContextProvider.getApplicationContext()
+                .getBean(localCache.weigher(), Weigher.class);
+        return (key, entry) -> custom.weigh(key, entry.value());
+    }
+
+    /**
+     * <p>
+     * Redistributes the global memory budget between the weight-bounded caches
+     * according to their recent hit rate. Does nothing when no budget is
+     * configured.
+     * </p>
+     */
+    public static void rebalanceMemoryBudget() {
+        if (memoryBudget != null) {
+            memoryBudget.rebalance(caches.values());
+        }
+    }
+
+    /**
+     * <p>
+     * Invalidates one entry of a cache on every instance. The key is the one the
+     * cache derives from the method arguments, see {@link #generateKey}.
+     * </p>
+     *
+     * @param cacheName
+     *            the cache name, {@code SimpleClassName.methodName}.
+     * @param key
+     *            the cache key.
+     * @return a {@link Mono} completing once the local and remote tiers are
+     *         invalidated; nothing happens until it is subscribed.
+     */
+    public static Mono<Void> invalidate(String cacheName, Object key) {
+        return invalidate(CacheInvalidation.key(cacheName, key));
+    }
+
+    /**
+     * <p>
+     * Invalidates every entry of a cache on every instance.
+     * </p>
+     *
+     * @param cacheName
+     *            the cache name, {@code SimpleClassName.methodName}.
+     * @return a {@link Mono} completing once the local and remote tiers are
+     *         invalidated; nothing happens until it is subscribed.
+     */
+    public static Mono<Void> invalidateAll(String cacheName) {
+        return invalidate(CacheInvalidation.cache(cacheName));
+    }
+
+    /**
+     * <p>
+     * Invalidates every entry of every cache on every instance.
+     * </p>
+     *
+     * @return a {@link Mono} completing once the local and remote tiers are
+     *         invalidated; nothing happens until it is subscribed.
+     */
+    public static Mono<Void> invalidateAll() {
+        return invalidate(CacheInvalidation.all());
+    }
+
+    /**
+     * <p>
+     * Builds the key a registered cache uses for the given method arguments, as
+     * configured by {@code keyExpression} or {@code keyGenerator}, so callers can
+     * invalidate the entry of a specific invocation.
+     * </p>
+     *
+     * @param cacheName
+     *            the cache name, {@code SimpleClassName.methodName}.
+     * @param target
+     *            the target bean, only needed by custom key generators and
+     *            expressions referring to it; may be {@code null} otherwise.
+     * @param args
+     *            the method arguments.
+     * @return the cache key.
+     * @throws IllegalArgumentException
+     *             if no cache with that name is registered.
+     */
+    public static Object generateKey(String cacheName, Object target, Object... args) {
+        CacheDefinition definition = caches.get(cacheName);
+        if (definition == null) {
+            throw new IllegalArgumentException("No cache registered with name " + cacheName);
+        }
+        return definition.generateKey(target, args);
+    }
+
+    private static Mono<Void> invalidate(CacheInvalidation invalidation) {
+        return Mono.defer(() -> {
+            invalidateLocally(invalidation);
+            if (invalidationBus != null) {
+                invalidationBus.publish(invalidation);
+            }
+            return invalidateRemote(invalidation);
+        });
+    }
+
+    /**
+     * <p>
+     * Applies an invalidation to the local caches only.
+     * </p>
+     *
+     * @param invalidation
+     *            the invalidation to apply.
+     */
+    static void invalidateLocally(CacheInvalidation invalidation) {
+        switch (invalidation.scope()) {
+            case KEY -> {
+                CacheDefinition definition = caches.get(invalidation.cacheName());
+                if (definition != null) {
+                    definition.getCache().synchronous().invalidate(invalidation.key());
+                }
+            }
+            case CACHE -> {
+                CacheDefinition definition = caches.get(invalidation.cacheName());
+                if (definition != null) {
+                    definition.getCache().synchronous().invalidateAll();
+                }
+            }
+            case ALL -> caches.values()
+                    .forEach(definition -> definition.getCache().synchronous().invalidateAll());
+        }
+    }
+
+    private static Mono<Void> invalidateRemote(CacheInvalidation invalidation) {
+        return Flux.fromIterable(caches.values())
+                .filter(definition -> definition.getRemoteCacheStore() != null)
+                .filter(definition -> invalidation.scope() == CacheInvalidation.Scope.ALL
+                        || definition.getName().equals(invalidation.cacheName()))
+                .flatMap(definition -> invalidation.scope() == CacheInvalidation.Scope.KEY
+                        ? definition.getRemoteCacheStore().invalidate(definition.getName(), invalidation.key())
+                        : definition.getRemoteCacheStore().invalidateAll(definition.getName()))
+                .then();
+    }
+
+    /**
+     * <p>
+     * Automatically loads cache entries for methods that are configured to
+     * auto-load. This method is triggered by the
+     * {@link org.springframework.context.event.ContextRefreshedEvent}.
+     * </p>
+     *
+     * <p>
+     * The methods are loaded once, without blocking the event thread, through the
+     * {@link CacheWarmup} pipeline, which bounds the number of concurrent loads
+     * and the duration of each one.
      * </p>
      *
      * @param event
-     *            a {@link ContextRefreshedEvent} object
+     *            a {@link org.springframework.context.event.ContextRefreshedEvent}
+     *            object indicating the application context has been refreshed.
      */
-    @Async
     @EventListener
     public void autoLoad(ContextRefreshedEvent event) {
-        if (!autoLoadMethods.isEmpty()) {
-            log.info("Start auto load {} cache", autoLoadMethods.size());
-            for (Method method : autoLoadMethods) {
-                CacheUtils.invokeMethod(method);
-            }
-            log.info("Finish auto load cache");
+        if (!autoLoadStarted.compareAndSet(false, true)) {
+            return;
+        }
+        if (autoLoadMethods.isEmpty()) {
+            warmup.run(Map.of()).subscribe();
+            return;
         }
+        log.info("Start auto load {} cache", autoLoadMethods.size());
+        long start = System.nanoTime();
+        warmup.run(Map.copyOf(autoLoadMethods))
+                .subscribe(null, null, () -> log.info(
+                        "Finish auto load cache in {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis()));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Sets the application context for this component, allowing it to access beans
+     * and application context resources. This method is called by Spring during the
+     * bean lifecycle. The optional {@link RemoteCacheStore} bean backing two-tier
+     * caches and the {@link CacheInvalidationBus} are resolved here.
+     * </p>
+     */
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         Class<?> mainApplicationClass = applicationContext
@@ -126,5 +654,62 @@ public class CacheStore implements ApplicationContextAware {
                 .next()
                 .getClass();
         reflectionPath = mainApplicationClass.getPackageName();
+        remoteCacheStore =
+                applicationContext.getBeanProvider(RemoteCacheStore.class).getIfAvailable();
+        invalidationBus =
+                applicationContext.getBeanProvider(CacheInvalidationBus.class).getIfAvailable();
+        LocalCacheProperties properties =
+                applicationContext.getBeanProvider(LocalCacheProperties.class).getIfAvailable(LocalCacheProperties::new);
+        configureMemoryBudget(properties.getMemoryBudget());
+        expiration = properties.getExpiration();
+        reloader = new CacheReloader(expiration.getReloadSpread());
+        offHeapStore = new OffHeapStore(properties.getOffHeap());
+        snapshotStore = properties.getSnapshot().isEnabled()
+                ? new CacheSnapshotStore(properties.getSnapshot(), snapshotVersion(applicationContext, properties))
+                : null;
+        warmup = new CacheWarmup(
+                properties.getAutoLoad(), result -> autoLoadListeners.forEach(listener -> listener.accept(result)));
+    }
+
+    private static String snapshotVersion(ApplicationContext applicationContext, LocalCacheProperties properties) {
+        if (StringUtils.hasText(properties.getSnapshot().getVersion())) {
+            return properties.getSnapshot().getVersion();
+        }
+        BuildProperties build =
+                applicationContext.getBeanProvider(BuildProperties.class).getIfAvailable();
+        return build == null ? null : build.getVersion() + "@" + build.getTime();
+    }
+
+    private static void configureMemoryBudget(LocalCacheProperties.MemoryBudget settings) {
+        if (budgetRebalancer != null) {
+            budgetRebalancer.dispose();
+            budgetRebalancer = null;
+        }
+        if (settings.getMaxSize() == null || settings.getMaxSize().toBytes() <= 0) {
+            memoryBudget = null;
+            return;
+        }
+        memoryBudget = new CacheMemoryBudget(settings.getMaxSize().toBytes(), settings.getMinSharePercent());
+        log.info("Cache memory budget of {} bytes enabled", memoryBudget.getBudgetBytes());
+        budgetRebalancer = Flux.interval(settings.getRebalanceInterval(), Schedulers.boundedElastic())
+                .subscribe(tick -> rebalanceMemoryBudget(), e -> log.error("Cache memory budget rebalancing stopped", e));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Stops the periodic rebalancing of the memory budget and writes the
+     * warm-start snapshot when enabled.
+     * </p>
+     */
+    @Override
+    public void destroy() {
+        if (budgetRebalancer != null) {
+            budgetRebalancer.dispose();
+        }
+        if (snapshotStore != null) {
+            snapshotStore.write(caches.values());
+        }
     }
 }
@@ -15,10 +15,12 @@
  */
 package com.reactify.cache;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -38,7 +40,6 @@ import reactor.core.publisher.Mono;
  * @author hoangtien2k3
  */
 @Slf4j
-@Component
 @RequiredArgsConstructor
 public class CacheUtils {
 
@@ -54,18 +55,37 @@ public class CacheUtils {
      *               invoked
      */
     public static void invokeMethod(Method method) {
-        try {
-            Class<?> declaringClass = method.getDeclaringClass();
-            Object t = ApplicationContextProvider.getApplicationContext().getBean(declaringClass);
-            Mono<Object> rs = (Mono<Object>) method.invoke(t);
-            rs.subscribe();
-        } catch (Exception exception) {
-            log.error(
-                    "Error when autoload cache {}.{}.{}",
-                    method.getDeclaringClass().getSimpleName(),
-                    method.getName(),
-                    exception.getMessage(),
-                    exception);
-        }
+        load(method)
+                .subscribe(null, exception -> log.error(
+                        "Error when autoload cache {}.{}.{}",
+                        method.getDeclaringClass().getSimpleName(),
+                        method.getName(),
+                        exception.getMessage(),
+                        exception));
+    }
+
+    /**
+     * <p>
+     * Returns a {@link Mono} that invokes the specified method on the bean of
+     * its declaring class and completes once the method result completes,
+     * so callers can track when the cache is loaded.
+     * </p>
+     *
+     * @param method a {@link Method} object representing the method to be
+     *               invoked
+     * @return a {@link Mono} completing with the method result, or failing
+     *         with the error of the method
+     */
+    public static Mono<Void> load(Method method) {
+        return Mono.defer(() -> {
+            try {
+                Object t = ApplicationContextProvider.getApplicationContext().getBean(method.getDeclaringClass());
+                return Flux.from((Publisher<?>) method.invoke(t)).then();
+            } catch (InvocationTargetException exception) {
+                return Mono.error(exception.getCause());
+            } catch (Exception exception) {
+                return Mono.error(exception);
+            }
+        });
     }
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * <p>
+ * The {@code CacheWarmup} class runs the auto-loading of the
+ * {@code autoCache} methods registered in {@link CacheStore} as a reactive
+ * pipeline: at most {@code parallelism} methods load at a time, critical caches
+ * first, and each load is bounded by a timeout. The outcome and duration of each
+ * load are tracked so readiness can wait for the critical caches and the load
+ * times can be published as metrics.
+ * </p>
+ *
+ * <p>
+ * A load that fails or times out is retried with an exponential backoff until
+ * {@code maxWait} has elapsed since the start of the warm-up, so a short
+ * downstream outage at startup does not leave a cache cold. Once a load gives
+ * up, its cache keeps its {@link Status#FAILED} or {@link Status#TIMED_OUT}
+ * status and readiness no longer waits for it; the cache is then filled on
+ * demand.
+ * </p>
+ *
+ * <p>
+ * Unless specific caches are configured as critical, every auto-loaded cache is
+ * critical. Readiness is only reported once the warm-up has started.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Slf4j
+public final class CacheWarmup {
+
+    private final int parallelism;
+    private final Duration timeout;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration maxWait;
+    private final Set<String> criticalCaches;
+    private final Consumer<Result> listener;
+    private final Map<String, Result> results = new ConcurrentHashMap<>();
+    private volatile boolean started;
+
+    /**
+     * Constructs a new instance of {@code CacheWarmup}.
+     *
+     * @param settings
+     *            the auto-load settings.
+     * @param listener
+     *            notified of every finished load.
+     */
+    CacheWarmup(LocalCacheProperties.AutoLoad settings, Consumer<Result> listener) {
+        this.parallelism = Math.max(1, settings.getParallelism());
+        this.timeout = settings.getTimeout();
+        this.retryBackoff = settings.getRetryBackoff();
+        this.maxRetryBackoff = settings.getMaxRetryBackoff();
+        this.maxWait = settings.getMaxWait();
+        this.criticalCaches = Set.copyOf(settings.getCriticalCaches());
+        this.listener = listener;
+    }
+
+    /**
+     * <p>
+     * Builds the warm-up pipeline for the given methods. Nothing is loaded until
+     * the returned {@link Mono} is subscribed; it completes once every method has
+     * loaded or given up and never signals an error.
+     * </p>
+     *
+     * @param methods
+     *            the methods to load, mapped to their cache names.
+     * @return the warm-up pipeline.
+     */
+    Mono<Void> run(Map<Method, String> methods) {
+        return Mono.defer(() -> {
+            methods.values()
+                    .forEach(name -> results.put(name, new Result(name, Status.PENDING, null, isCritical(name), 0)));
+            started = true;
+            long deadline = System.nanoTime() + maxWait.toNanos();
+            return Flux.fromIterable(methods.entrySet())
+                    .sort(Comparator.comparing((Map.Entry<Method, String> entry) -> !isCritical(entry.getValue()))
+                            .thenComparing(Map.Entry::getValue))
+                    .flatMap(entry -> load(entry.getKey(), entry.getValue(), deadline), parallelism)
+                    .then();
+        });
+    }
+
+    private Mono<Void> load(Method method, String name, long deadline) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            int[] attempts = {0};
+            return Mono.defer(() -> {
+                        attempts[0]++;
+                        results.put(name, new Result(name, Status.LOADING, null, isCritical(name), attempts[0]));
+                        return CacheUtils.load(method)
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .timeout(timeout);
+                    })
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, retryBackoff)
+                            .maxBackoff(maxRetryBackoff)
+                            .filter(e -> System.nanoTime() - deadline < 0)
+                            .doBeforeRetry(signal -> {
+                                log.warn(
+                                        "Auto load of cache {} failed, retry {}: {}",
+                                        name,
+                                        signal.totalRetries() + 1,
+                                        signal.failure().toString());
+                                results.put(
+                                        name, new Result(name, Status.RETRYING, null, isCritical(name), attempts[0]));
+                            }))
+                    .then(Mono.fromRunnable(() -> complete(name, Status.LOADED, start, attempts[0])))
+                    .onErrorResume(e -> {
+                        Status status = e instanceof TimeoutException ? Status.TIMED_OUT : Status.FAILED;
+                        log.error("Auto load of cache {} {} after {} attempts, give up", name, status, attempts[0], e);
+                        complete(name, status, start, attempts[0]);
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    private void complete(String name, Status status, long start, int attempts) {
+        Result result = new Result(
+                name, status, Duration.ofNanos(System.nanoTime() - start), isCritical(name), attempts);
+        results.put(name, result);
+        listener.accept(result);
+    }
+
+    private boolean isCritical(String name) {
+        return criticalCaches.isEmpty() || criticalCaches.contains(name);
+    }
+
+    /**
+     * <p>
+     * Checks whether the warm-up has started and every critical cache has been
+     * loaded, or has given up after retrying for {@code maxWait}.
+     * </p>
+     *
+     * @return {@code true} once the critical caches are warm.
+     */
+    public boolean isReady() {
+        return started
+                && results.values().stream()
+                        .filter(Result::critical)
+                        .allMatch(result -> result.status().isDone());
+    }
+
+    /**
+     * <p>
+     * Checks whether the warm-up pipeline has started.
+     * </p>
+     *
+     * @return {@code true} once {@link #run(Map)} has been subscribed.
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * <p>
+     * Returns the state of every auto-loaded cache.
+     * </p>
+     *
+     * @return the latest result per cache.
+     */
+    public Collection<Result> getResults() {
+        return results.values();
+    }
+
+    /**
+     * The state of the auto-load of one cache.
+     */
+    public enum Status {
+        /**
+         * Waiting for a free slot.
+         */
+        PENDING,
+
+        /**
+         * Being loaded.
+         */
+        LOADING,
+
+        /**
+         * The last attempt failed; waiting before the next one.
+         */
+        RETRYING,
+
+        /**
+         * Loaded successfully.
+         */
+        LOADED,
+
+        /**
+         * The method kept failing until {@code maxWait} elapsed.
+         */
+        FAILED,
+
+        /**
+         * The method kept timing out until {@code maxWait} elapsed.
+         */
+        TIMED_OUT;
+
+        /**
+         * Checks whether the load is over, successfully or not.
+         *
+         * @return {@code true} for {@link #LOADED}, {@link #FAILED} and
+         *         {@link #TIMED_OUT}.
+         */
+        public boolean isDone() {
+            return this == LOADED || this == FAILED || this == TIMED_OUT;
+        }
+    }
+
+    /**
+     * <p>
+     * The auto-load state of one cache.
+     * </p>
+     *
+     * @param cacheName
+     *            the cache name, {@code SimpleClassName.methodName}.
+     * @param status
+     *            the load state.
+     * @param duration
+     *            how long the load took, {@code null} until it finished.
+     * @param critical
+     *            whether readiness waits for the cache.
+     * @param attempts
+     *            the number of load attempts so far.
+     */
+    public record Result(String cacheName, Status status, Duration duration, boolean critical, int attempts) {}
+}
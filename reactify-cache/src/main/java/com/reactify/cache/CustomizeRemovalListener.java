@@ -18,6 +18,7 @@ package com.reactify.cache;
 import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.RemovalListener;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -25,7 +26,9 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * <p>
- * CustomizeRemovalListener class.
+ * CustomizeRemovalListener class. Evicted entries of auto-loaded methods
+ * are reloaded through a {@link CacheReloader}, which spreads reloads over
+ * time.
  * </p>
  *
  * @author hoangtien2k3
@@ -34,6 +37,18 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 @AllArgsConstructor
 public class CustomizeRemovalListener implements RemovalListener<Object, Object> {
     private Method method;
+    private CacheReloader reloader;
+
+    /**
+     * <p>
+     * Creates a listener reloading evicted entries immediately.
+     * </p>
+     *
+     * @param method the auto-loaded method
+     */
+    public CustomizeRemovalListener(Method method) {
+        this(method, new CacheReloader(Duration.ZERO));
+    }
 
     /** {@inheritDoc} */
     @Override
@@ -44,7 +59,7 @@ public class CustomizeRemovalListener implements RemovalListener<Object, Object>
                     method.getDeclaringClass().getSimpleName(),
                     method.getName(),
                     removalCause);
-            CacheUtils.invokeMethod(method);
+            reloader.schedule(method);
         }
     }
 }
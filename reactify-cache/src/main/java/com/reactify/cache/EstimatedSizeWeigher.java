@@ -0,0 +1,216 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * <p>
+ * Default {@link Weigher} of weight-bounded {@link CacheStore} caches. It
+ * estimates the retained heap size of a cached value, in bytes, from a compact
+ * model of the HotSpot object layout: strings, boxed numbers, arrays,
+ * collections and maps are sized directly, and other objects are walked
+ * through their instance fields down to a fixed depth.
+ * </p>
+ *
+ * <p>
+ * The estimate favours speed over precision. Objects reachable through several
+ * references, or through a cycle, are counted once, and JDK classes that are
+ * not sized directly count as a fixed small object. The walk visits at most
+ * {@value #MAX_OBJECTS} objects per entry; the remaining elements of a large
+ * collection, map or array are extrapolated from the average size of the
+ * elements already visited. It is computed once, when an entry is written.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public class EstimatedSizeWeigher implements Weigher<Object, CacheEntry> {
+
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 8;
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_OBJECTS = 10_000;
+
+    private static final ClassValue<List<Field>> FIELDS = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && field.trySetAccessible()) {
+                        fields.add(field);
+                    }
+                }
+            }
+            return List.copyOf(fields);
+        }
+    };
+
+    /**
+     * Constructs a new instance of {@code EstimatedSizeWeigher}.
+     */
+    public EstimatedSizeWeigher() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public int weigh(@NonNull Object key, @NonNull CacheEntry entry) {
+        Walk walk = new Walk();
+        long size = ENTRY_OVERHEAD + walk.estimate(key, 0) + walk.estimate(entry.value(), 0);
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    /**
+     * <p>
+     * Estimates the retained size of a value.
+     * </p>
+     *
+     * @param value
+     *            the value, may be {@code null}.
+     * @return the estimated size in bytes.
+     */
+    static long estimate(Object value) {
+        return new Walk().estimate(value, 0);
+    }
+
+    /**
+     * <p>
+     * One walk of an object graph, remembering the objects already counted and
+     * the number of objects it may still visit.
+     * </p>
+     */
+    private static final class Walk {
+
+        private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int remaining = MAX_OBJECTS;
+
+        private long estimate(Object value, int depth) {
+            if (value == null || value instanceof Enum<?> || value instanceof Class<?> || !visited.add(value)) {
+                return 0;
+            }
+            remaining--;
+            if (value instanceof CharSequence chars) {
+                return OBJECT_HEADER + 24 + chars.length();
+            }
+            if (value instanceof Long || value instanceof Double) {
+                return 24;
+            }
+            if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+                return OBJECT_HEADER;
+            }
+            if (depth >= MAX_DEPTH || remaining <= 0) {
+                return OBJECT_HEADER;
+            }
+            if (value instanceof Optional<?> optional) {
+                return OBJECT_HEADER + optional.map(v -> estimate(v, depth + 1)).orElse(0L);
+            }
+            if (value instanceof Collection<?> collection) {
+                return OBJECT_HEADER + 24 + (long) REFERENCE * collection.size()
+                        + estimateElements(collection, collection.size(), depth);
+            }
+            if (value instanceof Map<?, ?> map) {
+                return OBJECT_HEADER + 32 + 32L * map.size() + estimateElements(map.entrySet(), map.size(), depth);
+            }
+            Class<?> type = value.getClass();
+            if (type.isArray()) {
+                return estimateArray(value, type.getComponentType(), depth);
+            }
+            if (type.getName().startsWith("java.")) {
+                return OBJECT_HEADER + 16;
+            }
+            long size = OBJECT_HEADER;
+            for (Field field : FIELDS.get(type)) {
+                Class<?> fieldType = field.getType();
+                if (fieldType.isPrimitive()) {
+                    size += primitiveSize(fieldType);
+                    continue;
+                }
+                size += REFERENCE;
+                try {
+                    size += estimate(field.get(value), depth + 1);
+                } catch (IllegalAccessException e) {
+                    // inaccessible field, count the reference only
+                }
+            }
+            return size;
+        }
+
+        /**
+         * Sizes the elements, or map entries, of a container until the walk runs
+         * out of objects to visit, and extrapolates the others.
+         */
+        private long estimateElements(Iterable<?> elements, int count, int depth) {
+            long size = 0;
+            int visitedCount = 0;
+            for (Object element : elements) {
+                if (remaining <= 0) {
+                    break;
+                }
+                size += element instanceof Map.Entry<?, ?> entry
+                        ? estimate(entry.getKey(), depth + 1) + estimate(entry.getValue(), depth + 1)
+                        : estimate(element, depth + 1);
+                visitedCount++;
+            }
+            return extrapolate(size, visitedCount, count);
+        }
+
+        private long estimateArray(Object array, Class<?> componentType, int depth) {
+            int length = Array.getLength(array);
+            if (componentType.isPrimitive()) {
+                return OBJECT_HEADER + (long) length * primitiveSize(componentType);
+            }
+            long size = 0;
+            int visitedCount = 0;
+            while (visitedCount < length && remaining > 0) {
+                size += estimate(Array.get(array, visitedCount++), depth + 1);
+            }
+            return OBJECT_HEADER + (long) length * REFERENCE + extrapolate(size, visitedCount, length);
+        }
+
+        private static long extrapolate(long size, int visitedCount, int count) {
+            if (visitedCount >= count) {
+                return size;
+            }
+            long average = visitedCount == 0 ? OBJECT_HEADER : size / visitedCount;
+            return size + average * (count - visitedCount);
+        }
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import reactor.core.publisher.Mono;
+
+/**
+ * <p>
+ * Reference {@link RemoteCacheStore} keeping values in a process-wide
+ * {@link ConcurrentHashMap}. Expired values are dropped when they are read. It
+ * is meant for tests and local development, where several application contexts
+ * in the same JVM can share one instance to behave like separate pods sharing a
+ * remote cache.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public class InMemoryRemoteCacheStore implements RemoteCacheStore {
+
+    private final Map<String, Map<Object, Entry>> caches = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    /**
+     * Constructs a new instance of {@code InMemoryRemoteCacheStore} using the
+     * system clock.
+     */
+    public InMemoryRemoteCacheStore() {
+        this(Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a new instance of {@code InMemoryRemoteCacheStore}.
+     *
+     * @param clock
+     *            the {@link Clock} used to expire values.
+     */
+    public InMemoryRemoteCacheStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<Object> get(String cacheName, Object key) {
+        return Mono.fromSupplier(() -> {
+            Map<Object, Entry> cache = caches.get(cacheName);
+            if (cache == null) {
+                return null;
+            }
+            Entry entry = cache.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= clock.millis()) {
+                cache.remove(key, entry);
+                return null;
+            }
+            return entry.value();
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<Void> put(String cacheName, Object key, Object value, Duration ttl) {
+        return Mono.fromRunnable(() -> caches.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>())
+                .put(key, new Entry(value, clock.millis() + ttl.toMillis())));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<Void> invalidate(String cacheName, Object key) {
+        return Mono.fromRunnable(() -> {
+            Map<Object, Entry> cache = caches.get(cacheName);
+            if (cache != null) {
+                cache.remove(key);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<Void> invalidateAll(String cacheName) {
+        return Mono.fromRunnable(() -> caches.remove(cacheName));
+    }
+
+    private record Entry(Object value, long expiresAt) {}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * <p>
+ * The {@code JitteredExpiry} class is the {@link Expiry} of the
+ * {@link CacheStore} caches. An entry expires once it has lived its
+ * time-to-live, measured from {@link CacheEntry#loadedAt()}, shortened by a
+ * jitter of up to {@code jitterPercent} percent of its fresh portion. Entries
+ * loaded together, for instance at startup or on every instance of a
+ * deployment, therefore expire, and are reloaded, spread over time instead of
+ * all at once.
+ * </p>
+ *
+ * <p>
+ * Only the fresh portion is jittered: the {@code staleWhileRevalidate} grace
+ * period is kept whole, and {@link CacheDefinition} brings the refresh of an
+ * entry forward by the same jitter, so stale entries are still revalidated
+ * before they expire. The jitter of an entry is derived from its
+ * {@code loadedAt}, so expiry and refresh agree on it.
+ * </p>
+ *
+ * <p>
+ * Empty results and cached failures live for {@code negativeTtl} and
+ * {@code errorTtl} instead. The jitter only shortens the lifetime, so a value
+ * is never served for longer than configured. Because the age is taken from the entry, restored snapshot
+ * entries keep their original expiry. Reads do not extend the lifetime.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public class JitteredExpiry implements Expiry<Object, CacheEntry> {
+
+    private final long expireAfterWriteNanos;
+    private final long graceNanos;
+    private final long negativeTtlNanos;
+    private final long errorTtlNanos;
+    private final int jitterPercent;
+
+    /**
+     * Constructs a new instance of {@code JitteredExpiry}.
+     *
+     * @param expireAfterWriteNanos
+     *            the time-to-live of an entry in nanoseconds.
+     * @param graceNanos
+     *            the {@code staleWhileRevalidate} grace period at the end of the
+     *            time-to-live, in nanoseconds, which is not jittered.
+     * @param negativeTtlNanos
+     *            the time-to-live of an empty result in nanoseconds.
+     * @param errorTtlNanos
+     *            the time-to-live of a cached failure in nanoseconds.
+     * @param jitterPercent
+     *            the maximum share of the fresh portion of the time-to-live, in
+     *            percent, removed from each entry's lifetime.
+     */
+    public JitteredExpiry(
+            long expireAfterWriteNanos, long graceNanos, long negativeTtlNanos, long errorTtlNanos, int jitterPercent) {
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.graceNanos = Math.max(0, Math.min(graceNanos, expireAfterWriteNanos));
+        this.negativeTtlNanos = negativeTtlNanos;
+        this.errorTtlNanos = errorTtlNanos;
+        this.jitterPercent = Math.max(0, Math.min(100, jitterPercent));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long expireAfterCreate(@NonNull Object key, @NonNull CacheEntry entry, long currentTime) {
+        return lifetime(entry);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long expireAfterUpdate(
+            @NonNull Object key, @NonNull CacheEntry entry, long currentTime, @NonNegative long currentDuration) {
+        return lifetime(entry);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long expireAfterRead(
+            @NonNull Object key, @NonNull CacheEntry entry, long currentTime, @NonNegative long currentDuration) {
+        return currentDuration;
+    }
+
+    private long lifetime(CacheEntry entry) {
+        long timeToLive;
+        long freshNanos;
+        if (entry.isFailure()) {
+            timeToLive = errorTtlNanos;
+            freshNanos = errorTtlNanos;
+        } else if (entry.isEmptyResult() && negativeTtlNanos > 0) {
+            timeToLive = negativeTtlNanos;
+            freshNanos = negativeTtlNanos;
+        } else {
+            timeToLive = expireAfterWriteNanos;
+            freshNanos = expireAfterWriteNanos - graceNanos;
+        }
+        long age = Math.max(0, System.nanoTime() - entry.loadedAt());
+        return Math.max(0, timeToLive - jitter(entry, freshNanos, jitterPercent) - age);
+    }
+
+    /**
+     * <p>
+     * Returns the jitter of an entry: a share of up to {@code jitterPercent}
+     * percent of {@code freshNanos}, derived from {@link CacheEntry#loadedAt()}
+     * so that it is the same every time it is computed for the entry.
+     * </p>
+     *
+     * @param entry
+     *            the cached entry.
+     * @param freshNanos
+     *            the fresh portion of the entry's time-to-live in nanoseconds.
+     * @param jitterPercent
+     *            the maximum jitter, in percent of {@code freshNanos}.
+     * @return the jitter in nanoseconds.
+     */
+    static long jitter(CacheEntry entry, long freshNanos, int jitterPercent) {
+        long maxJitter = freshNanos / 100 * jitterPercent;
+        if (maxJitter <= 0) {
+            return 0;
+        }
+        // SplitMix64 finalizer, spreading close load times over the whole range
+        long z = entry.loadedAt() + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return Long.remainderUnsigned(z, maxJitter + 1);
+    }
+}
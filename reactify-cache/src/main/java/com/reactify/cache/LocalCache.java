@@ -34,6 +34,23 @@ import java.lang.annotation.Target;
  * cache can store.</li>
  * <li><strong>autoCache</strong>: A flag that determines whether the caching
  * should activate automatically upon method invocation.</li>
+ * <li><strong>refreshAfter</strong>: Age, in minutes, after which a cached
+ * result is reloaded in the background.</li>
+ * <li><strong>staleWhileRevalidate</strong>: Grace period, in minutes, during
+ * which an expired result is still served while it is revalidated.</li>
+ * <li><strong>maxElements</strong>: Maximum number of elements of a
+ * {@code Flux} result that may be cached.</li>
+ * <li><strong>tier</strong>: Local-only cache or local cache backed by a shared
+ * remote tier.</li>
+ * <li><strong>keyExpression</strong> / <strong>keyGenerator</strong>: How the
+ * cache key is built from the method arguments.</li>
+ * <li><strong>maxWeightBytes</strong> / <strong>weigher</strong>: Bounds the
+ * cache by the estimated size of its entries.</li>
+ * <li><strong>snapshot</strong>: Keeps the cache across restarts.</li>
+ * <li><strong>negativeTtl</strong> / <strong>errorTtl</strong>: Caches empty
+ * results and selected failures for a short time.</li>
+ * <li><strong>storage</strong>: Keeps the cached values on or off the Java
+ * heap.</li>
  * </ul>
  *
  * <p>
@@ -61,14 +78,80 @@ import java.lang.annotation.Target;
  * <dt><strong>autoCache</strong></dt>
  * <dd>When set to <code>true</code>, the method result is automatically cached
  * on execution. Default is <code>false</code>.</dd>
+ *
+ * <dt><strong>refreshAfter</strong></dt>
+ * <dd>Reloads a cached result in the background once it is older than this
+ * many minutes, while callers keep receiving it. Default is 0 (disabled).</dd>
+ *
+ * <dt><strong>staleWhileRevalidate</strong></dt>
+ * <dd>Keeps serving an expired result for this many minutes while it is
+ * revalidated, or while revalidation keeps failing. Default is 0.</dd>
+ *
+ * <dt><strong>maxElements</strong></dt>
+ * <dd>Caches a <code>Flux</code> result as an immutable list only when it has
+ * at most this many elements. Default is 10000.</dd>
+ *
+ * <dt><strong>tier</strong></dt>
+ * <dd><code>LOCAL_AND_REMOTE</code> checks the <code>RemoteCacheStore</code>
+ * bean on a local miss before invoking the method. Default is
+ * <code>LOCAL</code>.</dd>
+ *
+ * <dt><strong>keyExpression</strong></dt>
+ * <dd>SpEL expression over the arguments (<code>#name</code>,
+ * <code>#p0</code>) computing the key, e.g. <code>"#request.id"</code>.</dd>
+ *
+ * <dt><strong>keyGenerator</strong></dt>
+ * <dd>Bean name of a custom <code>KeyGenerator</code>. Without either
+ * attribute, a single <code>String</code>, <code>Long</code>,
+ * <code>Integer</code>, <code>UUID</code> or enum argument is the key itself.</dd>
+ *
+ * <dt><strong>maxWeightBytes</strong></dt>
+ * <dd>When positive, evicts by estimated entry size in bytes instead of
+ * <code>maxRecord</code>; caps the share of the cache when a global memory
+ * budget is configured. Default is 0.</dd>
+ *
+ * <dt><strong>weigher</strong></dt>
+ * <dd>Bean name of a Caffeine <code>Weigher</code> sizing the cached values.
+ * Default estimates the retained heap size.</dd>
+ *
+ * <dt><strong>snapshot</strong></dt>
+ * <dd>Writes the serializable entries to the warm-start snapshot on shutdown
+ * and restores them on startup. Default is <code>false</code>.</dd>
+ *
+ * <dt><strong>negativeTtl</strong></dt>
+ * <dd>Seconds an empty <code>Mono</code> or empty <code>Optional</code> result
+ * is cached. Default is 0 (disabled).</dd>
+ *
+ * <dt><strong>errorTtl</strong></dt>
+ * <dd>Seconds a failure is cached and replayed. Default is 0 (disabled). Only
+ * the type and message of the failure are kept, and each replay throws a new
+ * instance built with the public <code>(String)</code> constructor of the
+ * type; failures without such a constructor are not cached.</dd>
+ *
+ * <dt><strong>cacheErrors</strong></dt>
+ * <dd>Exception types cached when <code>errorTtl</code> is set. Default caches
+ * every failure.</dd>
+ *
+ * <dt><strong>storage</strong></dt>
+ * <dd><code>OFF_HEAP</code> serializes the values into direct memory and
+ * deserializes them on each hit, trading hit latency for a smaller heap; meant
+ * for large, read-mostly caches of serializable values. Such caches are bounded
+ * by <code>maxRecord</code> and ignore <code>maxWeightBytes</code>. Default is
+ * <code>HEAP</code>.</dd>
  * </dl>
  *
  * <p>
  * This annotation is ideal for performance-critical applications aiming to
  * reduce latency and optimize resource usage through local caching.
  * </p>
+ *
+ * <p>
+ * The deprecated {@code com.reactify.annotations.LocalCache} of
+ * {@code reactify-core} is meta-annotated with this annotation and handled by
+ * the same engine.
+ * </p>
  */
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface LocalCache {
     int durationInMinute() default 120;
@@ -76,4 +159,40 @@ public @interface LocalCache {
     int maxRecord() default 1000;
 
     boolean autoCache() default false;
+
+    int refreshAfter() default 0;
+
+    int staleWhileRevalidate() default 0;
+
+    int maxElements() default 10000;
+
+    Tier tier() default Tier.LOCAL;
+
+    String keyExpression() default "";
+
+    String keyGenerator() default "";
+
+    long maxWeightBytes() default 0;
+
+    String weigher() default "";
+
+    boolean snapshot() default false;
+
+    int negativeTtl() default 0;
+
+    int errorTtl() default 0;
+
+    Class<? extends Throwable>[] cacheErrors() default {};
+
+    Storage storage() default Storage.HEAP;
+
+    enum Tier {
+        LOCAL,
+        LOCAL_AND_REMOTE
+    }
+
+    enum Storage {
+        HEAP,
+        OFF_HEAP
+    }
 }
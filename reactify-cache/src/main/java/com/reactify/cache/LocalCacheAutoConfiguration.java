@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * <p>
+ * Spring Boot auto-configuration of the {@link LocalCache} engine. It is the
+ * only place the engine beans are declared, so an application gets exactly one
+ * {@link CacheStore}, one discovery of the annotated methods and one
+ * {@link CacheAspect}, whether it depends on {@code reactify-cache} directly or
+ * through {@code reactify-core}, and whatever packages it component-scans.
+ * </p>
+ *
+ * <p>
+ * Micrometer metrics, the {@code localcaches} actuator endpoint and the warm-up
+ * health indicator are added when Micrometer and Spring Boot Actuator are on the
+ * classpath.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(LocalCacheProperties.class)
+public class LocalCacheAutoConfiguration {
+
+    /**
+     * Constructs a new instance of {@code LocalCacheAutoConfiguration}.
+     */
+    public LocalCacheAutoConfiguration() {}
+
+    /**
+     * <p>
+     * Exposes the application context to the static parts of the engine.
+     * </p>
+     *
+     * @return the {@link ApplicationContextProvider}.
+     */
+    @Bean
+    public ApplicationContextProvider localCacheApplicationContextProvider() {
+        return new ApplicationContextProvider();
+    }
+
+    /**
+     * <p>
+     * Creates the cache registry. It depends on the context provider so custom
+     * key generators and weighers can be resolved while caches are registered.
+     * </p>
+     *
+     * @param applicationContextProvider
+     *            the context provider of the engine.
+     * @return the {@link CacheStore}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheStore cacheStore(ApplicationContextProvider applicationContextProvider) {
+        return new CacheStore();
+    }
+
+    /**
+     * <p>
+     * Creates the aspect serving the {@link LocalCache} methods.
+     * </p>
+     *
+     * @param cacheStore
+     *            the cache registry, initialized before any method is advised.
+     * @return the {@link CacheAspect}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheAspect cacheAspect(CacheStore cacheStore) {
+        return new CacheAspect();
+    }
+
+    /**
+     * <p>
+     * Creates the cluster-wide invalidation bus, inactive without a
+     * {@link CacheInvalidationTransport} bean.
+     * </p>
+     *
+     * @param properties
+     *            the cache engine settings.
+     * @param transportProvider
+     *            provider of the optional transport.
+     * @return the {@link CacheInvalidationBus}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheInvalidationBus cacheInvalidationBus(
+            LocalCacheProperties properties, ObjectProvider<CacheInvalidationTransport> transportProvider) {
+        return new CacheInvalidationBus(properties, transportProvider);
+    }
+
+    /**
+     * <p>
+     * Publishes cache statistics and auto-load timings to Micrometer.
+     * </p>
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        LocalCacheMetrics localCacheMetrics() {
+            return new LocalCacheMetrics();
+        }
+    }
+
+    /**
+     * <p>
+     * Exposes the {@code localcaches} actuator endpoint.
+     * </p>
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class EndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        LocalCacheEndpoint localCacheEndpoint() {
+            return new LocalCacheEndpoint();
+        }
+    }
+
+    /**
+     * <p>
+     * Reports the warm-up of the auto-loaded caches as a health indicator.
+     * </p>
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HealthIndicator.class)
+    static class HealthConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        LocalCacheWarmupHealthIndicator localCacheWarmupHealthIndicator() {
+            return new LocalCacheWarmupHealthIndicator();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * <p>
+ * The {@code LocalCacheEndpoint} class is an actuator endpoint, exposed as
+ * {@code /actuator/localcaches}, listing the statistics of every
+ * {@link CacheStore} cache: hit rate, average load time, eviction count and
+ * estimated size, along with the configured bounds they are measured against.
+ * {@code /actuator/localcaches/{name}} returns a single cache.
+ * </p>
+ *
+ * <p>
+ * The endpoint has to be exposed like any other, e.g. with
+ * {@code management.endpoints.web.exposure.include=localcaches}.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Endpoint(id = "localcaches")
+public class LocalCacheEndpoint {
+
+    /**
+     * Constructs a new instance of {@code LocalCacheEndpoint}.
+     */
+    public LocalCacheEndpoint() {}
+
+    /**
+     * <p>
+     * Lists the statistics of every cache, sorted by name.
+     * </p>
+     *
+     * @return the statistics keyed by cache name.
+     */
+    @ReadOperation
+    public Map<String, CacheReport> caches() {
+        Map<String, CacheReport> reports = new TreeMap<>();
+        for (CacheDefinition definition : CacheStore.getDefinitions()) {
+            reports.put(definition.getName(), report(definition));
+        }
+        return reports;
+    }
+
+    /**
+     * <p>
+     * Returns the statistics of one cache.
+     * </p>
+     *
+     * @param name
+     *            the cache name, {@code SimpleClassName.methodName}.
+     * @return the statistics, or {@code null}, answered as 404, when no cache has
+     *         that name.
+     */
+    @ReadOperation
+    public CacheReport cache(@Selector String name) {
+        return CacheStore.getDefinitions().stream()
+                .filter(definition -> definition.getName().equals(name))
+                .findFirst()
+                .map(LocalCacheEndpoint::report)
+                .orElse(null);
+    }
+
+    private static CacheReport report(CacheDefinition definition) {
+        Cache<Object, CacheEntry> cache = definition.getCache().synchronous();
+        CacheStats stats = cache.stats();
+        Policy.Eviction<Object, CacheEntry> eviction =
+                cache.policy().eviction().orElse(null);
+        boolean weighted = eviction != null && eviction.isWeighted();
+        return new CacheReport(
+                stats.requestCount(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.loadSuccessCount(),
+                stats.loadFailureCount(),
+                stats.averageLoadPenalty() / 1_000_000d,
+                stats.evictionCount(),
+                cache.estimatedSize(),
+                weighted ? eviction.weightedSize().orElse(0L) : null,
+                eviction == null ? null : eviction.getMaximum(),
+                weighted);
+    }
+
+    /**
+     * <p>
+     * Statistics of one cache, accumulated since it was created.
+     * </p>
+     *
+     * @param requests
+     *            the number of lookups.
+     * @param hits
+     *            the number of lookups answered from the cache.
+     * @param misses
+     *            the number of lookups that loaded a value.
+     * @param hitRate
+     *            the ratio of hits to lookups, {@code 1.0} without lookups.
+     * @param loads
+     *            the number of successful loads.
+     * @param loadFailures
+     *            the number of failed loads.
+     * @param averageLoadMillis
+     *            the average time spent loading a value, in milliseconds.
+     * @param evictions
+     *            the number of entries evicted by size or expiry.
+     * @param estimatedSize
+     *            the approximate number of entries.
+     * @param weightedSize
+     *            the estimated size of the entries in bytes, {@code null} when
+     *            the cache is bounded by entry count.
+     * @param maximum
+     *            the current bound, in entries or bytes.
+     * @param weighted
+     *            whether the bound is a weight in bytes.
+     */
+    public record CacheReport(
+            long requests,
+            long hits,
+            long misses,
+            double hitRate,
+            long loads,
+            long loadFailures,
+            double averageLoadMillis,
+            long evictions,
+            long estimatedSize,
+            Long weightedSize,
+            Long maximum,
+            boolean weighted) {}
+}
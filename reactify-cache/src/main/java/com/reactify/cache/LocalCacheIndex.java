@@ -0,0 +1,217 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+/**
+ * <p>
+ * The {@code LocalCacheIndex} class reads the compile-time index of methods
+ * annotated with {@link com.reactify.cache.LocalCache}. The index is
+ * generated by {@link LocalCacheIndexProcessor} and lets
+ * {@link CacheStore} discover cached methods without scanning the classpath at
+ * startup.
+ * </p>
+ *
+ * <p>
+ * Each line of the index has the form
+ * {@code binary.ClassName#methodName(parameter.Type,...)}, where parameter types
+ * are written with their canonical names. Blank lines and lines starting with
+ * {@code #} are ignored.
+ * </p>
+ *
+ * <p>
+ * An index only describes the classpath root, directory or jar, it was
+ * generated into. {@link #roots(ClassLoader)} returns those roots so that
+ * {@link CacheStore} can still scan the roots without an index, for instance
+ * an application built with explicit {@code annotationProcessorPaths} that
+ * depends on an indexed library.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Slf4j
+public final class LocalCacheIndex {
+
+    /**
+     * Location of the index resource on the classpath.
+     */
+    public static final String INDEX_LOCATION = "META-INF/reactify/" + LocalCache.class.getName() + ".idx";
+
+    private LocalCacheIndex() {}
+
+    /**
+     * <p>
+     * Loads every index resource visible to the given class loader and resolves
+     * the indexed entries to {@link java.lang.reflect.Method} objects. Entries that
+     * no longer resolve are skipped.
+     * </p>
+     *
+     * @param classLoader
+     *            the {@link java.lang.ClassLoader} used to find the index and load
+     *            the indexed classes.
+     * @return the indexed methods, or an empty {@link java.util.Optional} when no
+     *         readable index exists and the caller should fall back to scanning.
+     */
+    public static Optional<Set<Method>> load(ClassLoader classLoader) {
+        Enumeration<URL> resources;
+        try {
+            resources = classLoader.getResources(INDEX_LOCATION);
+        } catch (IOException e) {
+            log.warn("Cannot lookup local cache index {}", INDEX_LOCATION, e);
+            return Optional.empty();
+        }
+        if (!resources.hasMoreElements()) {
+            return Optional.empty();
+        }
+        Set<Method> methods = new HashSet<>();
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            try (BufferedReader reader =
+                    new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        resolve(line, classLoader).ifPresent(methods::add);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Cannot read local cache index {}", url, e);
+                return Optional.empty();
+            }
+        }
+        return Optional.of(methods);
+    }
+
+    /**
+     * <p>
+     * Returns the classpath roots holding an index, normalized by
+     * {@link #normalizeRoot(URL)}.
+     * </p>
+     *
+     * @param classLoader
+     *            the {@link java.lang.ClassLoader} used to find the index.
+     * @return the indexed roots, empty when no index exists or it cannot be
+     *         looked up.
+     */
+    public static Set<String> roots(ClassLoader classLoader) {
+        Set<String> roots = new HashSet<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+            while (resources.hasMoreElements()) {
+                String url = resources.nextElement().toExternalForm();
+                if (url.endsWith(INDEX_LOCATION)) {
+                    roots.add(normalizeRoot(url.substring(0, url.length() - INDEX_LOCATION.length())));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot lookup local cache index {}", INDEX_LOCATION, e);
+        }
+        return roots;
+    }
+
+    /**
+     * <p>
+     * Normalizes a classpath root URL so that a directory, a jar and the
+     * {@code jar:} URL of its content compare equal, e.g.
+     * {@code jar:file:/app/lib.jar!/} and {@code file:/app/lib.jar}.
+     * </p>
+     *
+     * @param root
+     *            the root URL.
+     * @return the normalized root.
+     */
+    public static String normalizeRoot(URL root) {
+        return normalizeRoot(root.toExternalForm());
+    }
+
+    private static String normalizeRoot(String root) {
+        String normalized = root.startsWith("jar:") ? root.substring("jar:".length()) : root;
+        if (normalized.endsWith("!/")) {
+            normalized = normalized.substring(0, normalized.length() - 2);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * <p>
+     * Formats an index entry.
+     * </p>
+     *
+     * @param className
+     *            the binary name of the declaring class.
+     * @param methodName
+     *            the method name.
+     * @param parameterTypes
+     *            the canonical names of the erased parameter types.
+     * @return the index entry.
+     */
+    static String entry(String className, String methodName, List<String> parameterTypes) {
+        return className + "#" + methodName + "(" + String.join(",", parameterTypes) + ")";
+    }
+
+    private static Optional<Method> resolve(String entry, ClassLoader classLoader) {
+        int hash = entry.indexOf('#');
+        int open = entry.indexOf('(', hash + 1);
+        if (hash <= 0 || open < 0 || !entry.endsWith(")")) {
+            log.warn("Ignore malformed local cache index entry {}", entry);
+            return Optional.empty();
+        }
+        String className = entry.substring(0, hash);
+        String methodName = entry.substring(hash + 1, open);
+        String parameters = entry.substring(open + 1, entry.length() - 1);
+        try {
+            Class<?> clazz = Class.forName(className, false, classLoader);
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.getName().equals(methodName)
+                        && AnnotatedElementUtils.hasAnnotation(method, LocalCache.class)
+                        && parameters.equals(parameterTypes(method))) {
+                    return Optional.of(method);
+                }
+            }
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.warn("Cannot resolve local cache index entry {}", entry, e);
+            return Optional.empty();
+        }
+        log.warn("Ignore stale local cache index entry {}", entry);
+        return Optional.empty();
+    }
+
+    private static String parameterTypes(Method method) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (Class<?> type : method.getParameterTypes()) {
+            joiner.add(type.getCanonicalName());
+        }
+        return joiner.toString();
+    }
+}
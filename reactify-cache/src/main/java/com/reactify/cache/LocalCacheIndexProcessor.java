@@ -0,0 +1,188 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * <p>
+ * The {@code LocalCacheIndexProcessor} is an annotation processor that writes
+ * every method annotated with {@link com.reactify.cache.LocalCache}, or with
+ * its deprecated alias {@code com.reactify.annotations.LocalCache}, to
+ * the {@link LocalCacheIndex#INDEX_LOCATION} resource at compile time. At
+ * startup {@link CacheStore} reads that index instead of scanning the
+ * application package with Reflections.
+ * </p>
+ *
+ * <p>
+ * The processor is registered through
+ * {@code META-INF/services/javax.annotation.processing.Processor}, so it runs
+ * automatically when the library is on the compile classpath. Projects that
+ * configure {@code annotationProcessorPaths} explicitly must add this library to
+ * that list, otherwise no index is generated and {@link CacheStore} scans the
+ * classes of the project instead.
+ * </p>
+ *
+ * <p>
+ * An incremental build only compiles some of the classes, so the processor
+ * merges into the index left by the previous build: entries of the classes
+ * compiled now are replaced, and entries of the other classes are kept.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@SupportedAnnotationTypes({"com.reactify.cache.LocalCache", "com.reactify.annotations.LocalCache"})
+public class LocalCacheIndexProcessor extends AbstractProcessor {
+
+    private final Set<String> entries = new TreeSet<>();
+    private final Set<String> compiledTypes = new HashSet<>();
+
+    /**
+     * Constructs a new instance of {@code LocalCacheIndexProcessor}.
+     */
+    public LocalCacheIndexProcessor() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (Element root : roundEnv.getRootElements()) {
+            collectTypes(root);
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWithAny(annotations.toArray(new TypeElement[0]))) {
+            if (element.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) element;
+            TypeElement owner = (TypeElement) method.getEnclosingElement();
+            List<String> parameterTypes = new ArrayList<>();
+            for (VariableElement parameter : method.getParameters()) {
+                parameterTypes.add(typeName(parameter.asType()));
+            }
+            entries.add(LocalCacheIndex.entry(
+                    processingEnv.getElementUtils().getBinaryName(owner).toString(),
+                    method.getSimpleName().toString(),
+                    parameterTypes));
+        }
+        return false;
+    }
+
+    private void collectTypes(Element element) {
+        if (element instanceof TypeElement type) {
+            compiledTypes.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+            for (Element enclosed : type.getEnclosedElements()) {
+                collectTypes(enclosed);
+            }
+        }
+    }
+
+    /**
+     * Reads the entries of the index left by a previous build whose classes are
+     * not compiled now.
+     */
+    private Set<String> previousEntries() {
+        Set<String> previous = new TreeSet<>();
+        try {
+            FileObject resource = processingEnv
+                    .getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", LocalCacheIndex.INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(resource.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    int hash = line.indexOf('#');
+                    if (hash > 0 && !compiledTypes.contains(line.substring(0, hash))) {
+                        previous.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no previous index
+        }
+        return previous;
+    }
+
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.ARRAY) {
+            return typeName(((ArrayType) erased).getComponentType()) + "[]";
+        }
+        if (erased.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().getPrimitiveType(erased.getKind()).toString();
+        }
+        Element element = processingEnv.getTypeUtils().asElement(erased);
+        if (element instanceof TypeElement typeElement) {
+            return typeElement.getQualifiedName().toString();
+        }
+        return erased.toString();
+    }
+
+    private void writeIndex() {
+        entries.addAll(previousEntries());
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = processingEnv
+                    .getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", LocalCacheIndex.INDEX_LOCATION);
+            try (Writer writer = resource.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + System.lineSeparator());
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write(System.lineSeparator());
+                }
+            }
+        } catch (IOException e) {
+            processingEnv
+                    .getMessager()
+                    .printMessage(
+                            Diagnostic.Kind.WARNING,
+                            "Cannot write local cache index " + LocalCacheIndex.INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+}
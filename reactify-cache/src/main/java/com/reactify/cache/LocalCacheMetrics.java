@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * <p>
+ * The {@code LocalCacheMetrics} class binds every {@link CacheStore} cache to
+ * the Micrometer registry through {@link CaffeineCacheMetrics}, exposing the
+ * standard {@code cache.gets}, {@code cache.puts}, {@code cache.evictions},
+ * {@code cache.size} and load meters tagged with the cache name, i.e.
+ * {@code SimpleClassName.methodName}, and the declaring class.
+ * </p>
+ *
+ * <p>
+ * The duration of each auto-load is recorded by the
+ * {@code local.cache.autoload} timer, tagged with the cache name and outcome.
+ * The direct memory reserved and used by {@code OFF_HEAP} caches is published
+ * by the {@code local.cache.offheap.allocated} and
+ * {@code local.cache.offheap.used} gauges, and the values of such caches kept
+ * on the heap instead are counted by {@code local.cache.offheap.fallbacks}.
+ * </p>
+ *
+ * <p>
+ * Caches registered after the registry is bound, such as lazily registered
+ * methods, are bound as soon as they are created.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public class LocalCacheMetrics implements MeterBinder {
+
+    /**
+     * Constructs a new instance of {@code LocalCacheMetrics}.
+     */
+    public LocalCacheMetrics() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CacheStore.onRegistration(definition -> bind(registry, definition));
+        CacheStore.onAutoLoad(result -> Timer.builder("local.cache.autoload")
+                .description("Time taken to auto-load a cache")
+                .tag("cache", result.cacheName())
+                .tag("outcome", result.status().name())
+                .register(registry)
+                .record(result.duration()));
+        Gauge.builder("local.cache.offheap.allocated", () -> CacheStore.getOffHeapStore()
+                        .getAllocatedBytes())
+                .description("Direct memory reserved by off-heap caches")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        Gauge.builder("local.cache.offheap.used", () -> CacheStore.getOffHeapStore()
+                        .getUsedBytes())
+                .description("Direct memory used by the values of off-heap caches")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        FunctionCounter.builder(
+                        "local.cache.offheap.fallbacks",
+                        CacheStore.class,
+                        type -> CacheStore.getOffHeapStore().getHeapFallbacks())
+                .description("Values of off-heap caches kept on the heap")
+                .register(registry);
+    }
+
+    private static void bind(MeterRegistry registry, CacheDefinition definition) {
+        new CaffeineCacheMetrics<>(
+                        definition.getCache().synchronous(),
+                        definition.getName(),
+                        Tags.of("class", definition.getMethod().getDeclaringClass().getName()))
+                .bindTo(registry);
+    }
+}
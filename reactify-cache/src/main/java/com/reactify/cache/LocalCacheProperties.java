@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * <p>
+ * The {@code LocalCacheProperties} class holds the application-wide settings of
+ * the {@link com.reactify.cache.LocalCache} engine, bound from the
+ * {@code application.local-cache} prefix. Per-method settings stay on the
+ * annotation.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@ConfigurationProperties(prefix = "application.local-cache", ignoreInvalidFields = true)
+@Data
+public class LocalCacheProperties {
+
+    /**
+     * Settings of the cluster-wide invalidation bus.
+     */
+    private Invalidation invalidation = new Invalidation();
+
+    /**
+     * Settings of the global memory budget shared by all caches.
+     */
+    private MemoryBudget memoryBudget = new MemoryBudget();
+
+    /**
+     * Settings of the warm-start snapshots.
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * Settings of the auto-loading of {@code autoCache} methods.
+     */
+    private AutoLoad autoLoad = new AutoLoad();
+
+    /**
+     * Settings of entry expiry and reload.
+     */
+    private Expiration expiration = new Expiration();
+
+    /**
+     * Settings of the off-heap storage of {@code OFF_HEAP} caches.
+     */
+    private OffHeap offHeap = new OffHeap();
+
+    /**
+     * Constructs a new instance of {@code LocalCacheProperties}.
+     */
+    public LocalCacheProperties() {}
+
+    /**
+     * <p>
+     * Settings of the {@link CacheInvalidationBus}.
+     * </p>
+     */
+    @Data
+    public static class Invalidation {
+
+        /**
+         * Maximum number of invalidations sent in one batch.
+         */
+        private int batchSize = 500;
+
+        /**
+         * How long invalidations are collected, and duplicates merged, before a
+         * batch is sent.
+         */
+        private Duration window = Duration.ofMillis(200);
+
+        /**
+         * Constructs a new instance of {@code Invalidation}.
+         */
+        public Invalidation() {}
+    }
+
+    /**
+     * <p>
+     * Settings of the {@link CacheMemoryBudget}. The budget is disabled unless
+     * {@code max-size} is set.
+     * </p>
+     */
+    @Data
+    public static class MemoryBudget {
+
+        /**
+         * Total estimated size of all cached entries, e.g. {@code 256MB}.
+         */
+        private DataSize maxSize;
+
+        /**
+         * How often the budget is redistributed according to the hit rate of each
+         * cache.
+         */
+        private Duration rebalanceInterval = Duration.ofMinutes(1);
+
+        /**
+         * Percentage of the budget shared evenly between caches, whatever their
+         * hit rate.
+         */
+        private int minSharePercent = 20;
+
+        /**
+         * Constructs a new instance of {@code MemoryBudget}.
+         */
+        public MemoryBudget() {}
+    }
+
+    /**
+     * <p>
+     * Settings of the {@link CacheSnapshotStore}. Only caches declared with
+     * {@code snapshot = true} are written.
+     * </p>
+     */
+    @Data
+    public static class Snapshot {
+
+        /**
+         * Whether snapshots are written on shutdown and restored on startup.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Location of the snapshot file. Its directory must be private to the
+         * application user: a snapshot that others may write is ignored.
+         */
+        private String file = Path.of(System.getProperty("user.home"), ".reactify", "local-cache.snapshot")
+                .toString();
+
+        /**
+         * Application version stamped in the snapshot; a snapshot written by
+         * another version is dropped. Defaults to the version and time of the
+         * build information, or to a fingerprint of the classes declaring the
+         * snapshot-enabled methods.
+         */
+        private String version;
+
+        /**
+         * Snapshots older than this are dropped.
+         */
+        private Duration maxAge = Duration.ofHours(1);
+
+        /**
+         * {@link java.io.ObjectInputFilter} patterns of the classes, besides
+         * {@code java.lang}, {@code java.util}, {@code java.time} and
+         * {@code java.math}, that may be read back from the snapshot, e.g.
+         * {@code com.example.dto.**}. Every other class is rejected.
+         */
+        private List<String> allowedClasses = new ArrayList<>();
+
+        /**
+         * Constructs a new instance of {@code Snapshot}.
+         */
+        public Snapshot() {}
+    }
+
+    /**
+     * <p>
+     * Settings of the {@link CacheWarmup} pipeline.
+     * </p>
+     */
+    @Data
+    public static class AutoLoad {
+
+        /**
+         * Maximum number of methods loaded concurrently.
+         */
+        private int parallelism = 4;
+
+        /**
+         * Maximum time a single method may take to load.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        /**
+         * Delay before the first retry of a failed or timed out load; it doubles
+         * with every retry.
+         */
+        private Duration retryBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Maximum delay between two retries of a load.
+         */
+        private Duration maxRetryBackoff = Duration.ofSeconds(30);
+
+        /**
+         * Time after the start of the warm-up after which a failing load is no
+         * longer retried; readiness then stops waiting for it.
+         */
+        private Duration maxWait = Duration.ofMinutes(5);
+
+        /**
+         * Names of the caches, {@code SimpleClassName.methodName}, readiness waits
+         * for. When empty, readiness waits for every auto-loaded cache.
+         */
+        private List<String> criticalCaches = new ArrayList<>();
+
+        /**
+         * Constructs a new instance of {@code AutoLoad}.
+         */
+        public AutoLoad() {}
+    }
+
+    /**
+     * <p>
+     * Settings of the {@link JitteredExpiry} and {@link CacheReloader}.
+     * </p>
+     */
+    @Data
+    public static class Expiration {
+
+        /**
+         * Maximum share of the time-to-live, in percent, randomly removed from the
+         * lifetime of each entry.
+         */
+        private int jitterPercent = 10;
+
+        /**
+         * Maximum random delay before an evicted auto-loaded cache is reloaded.
+         */
+        private Duration reloadSpread = Duration.ofSeconds(30);
+
+        /**
+         * Constructs a new instance of {@code Expiration}.
+         */
+        public Expiration() {}
+    }
+
+    /**
+     * <p>
+     * Settings of the {@link OffHeapStore}.
+     * </p>
+     */
+    @Data
+    public static class OffHeap {
+
+        /**
+         * Size of each direct buffer slab. Values larger than a slab stay on the
+         * heap.
+         */
+        private DataSize slabSize = DataSize.ofMegabytes(16);
+
+        /**
+         * Total off-heap memory shared by all {@code OFF_HEAP} caches. Once it is
+         * used up, new values stay on the heap.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(256);
+
+        /**
+         * Constructs a new instance of {@code OffHeap}.
+         */
+        public OffHeap() {}
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * <p>
+ * The {@code LocalCacheWarmupHealthIndicator} class reports
+ * {@code OUT_OF_SERVICE} while the critical auto-loaded caches of
+ * {@link CacheStore} are warming up, including before the warm-up has started,
+ * and {@code UP} once they are all loaded or have given up retrying. The
+ * details list the state, load time and attempts of every auto-loaded cache.
+ * </p>
+ *
+ * <p>
+ * Add it to the readiness group so traffic is only routed to warm instances,
+ * e.g. {@code management.endpoint.health.group.readiness.include=readinessState,localCacheWarmup}.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public class LocalCacheWarmupHealthIndicator implements HealthIndicator {
+
+    /**
+     * Constructs a new instance of {@code LocalCacheWarmupHealthIndicator}.
+     */
+    public LocalCacheWarmupHealthIndicator() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public Health health() {
+        CacheWarmup warmup = CacheStore.getWarmup();
+        Map<String, Object> details = new TreeMap<>();
+        if (!warmup.isStarted()) {
+            return Health.outOfService().withDetail("warmup", "NOT_STARTED").build();
+        }
+        for (CacheWarmup.Result result : warmup.getResults()) {
+            String state = result.duration() == null
+                    ? result.status().toString()
+                    : result.status() + " in " + result.duration().toMillis() + " ms";
+            details.put(
+                    result.cacheName(),
+                    result.attempts() > 1 ? state + " after " + result.attempts() + " attempts" : state);
+        }
+        Health.Builder builder = warmup.isReady() ? Health.up() : Health.outOfService();
+        return builder.withDetails(details).build();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * <p>
+ * In-JVM {@link CacheInvalidationTransport} that delivers every published batch
+ * to the subscribers of the same instance. It is meant for tests, where several
+ * application contexts sharing one instance behave like separate pods.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public class LoopbackCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final Sinks.Many<CacheInvalidationBatch> sink =
+            Sinks.many().multicast().directBestEffort();
+
+    /**
+     * Constructs a new instance of {@code LoopbackCacheInvalidationTransport}.
+     */
+    public LoopbackCacheInvalidationTransport() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<Void> publish(CacheInvalidationBatch batch) {
+        return Mono.fromRunnable(() -> {
+            synchronized (sink) {
+                sink.tryEmitNext(batch);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Flux<CacheInvalidationBatch> receive() {
+        return sink.asFlux();
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.util.ClassUtils;
+
+/**
+ * <p>
+ * The {@code OffHeapStore} class keeps the values of {@code OFF_HEAP} caches
+ * outside the Java heap, so that large read-mostly caches do not inflate the
+ * old generation and lengthen garbage collection pauses.
+ * </p>
+ *
+ * <p>
+ * Values are serialized with Java serialization and written to blocks carved
+ * out of slabs of direct {@link ByteBuffer}s. The Caffeine cache only holds a
+ * small {@link Ref} per entry, made of the slab and the offset and length of
+ * the value, and the value is deserialized again on each hit.
+ * </p>
+ *
+ * <p>
+ * Blocks come in power-of-two size classes, from {@value #MIN_BLOCK} bytes up
+ * to the slab size. A value takes a block of the smallest class it fits in,
+ * and the block goes back to the free list of its class as soon as the entry
+ * leaves the cache, to be reused by the next value of that class. A single
+ * long-lived entry therefore only pins its own block, never a whole slab; the
+ * price is up to half a block of padding per value.
+ * </p>
+ *
+ * <p>
+ * Writes and releases are serialized by the store; reads are lock-free. Each
+ * block starts with the stamp of the value it holds, cleared on release, so a
+ * reader that raced with the reuse of a block detects it and reports the value
+ * as gone.
+ * </p>
+ *
+ * <p>
+ * Values that stay on the heap, because they are not serializable, larger than
+ * a slab or the store is full, are counted by {@link #getHeapFallbacks()}.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Slf4j
+final class OffHeapStore {
+
+    private static final int MIN_BLOCK = 64;
+    private static final int STAMP = Long.BYTES;
+
+    private final int slabSize;
+    private final int maxSlabs;
+    private final ArrayDeque<Ref>[] freeBlocks;
+    private final LongAdder heapFallbacks = new LongAdder();
+    private int allocatedSlabs;
+    private long usedBytes;
+    private long lastStamp;
+    private Slab current;
+
+    /**
+     * Constructs a new instance of {@code OffHeapStore}. No memory is allocated
+     * until the first value is written.
+     *
+     * @param settings
+     *            the slab size and total size of the store.
+     */
+    @SuppressWarnings("unchecked")
+    OffHeapStore(LocalCacheProperties.OffHeap settings) {
+        this.slabSize = (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_BLOCK, settings.getSlabSize().toBytes()));
+        this.maxSlabs = (int) Math.min(Integer.MAX_VALUE, settings.getMaxSize().toBytes() / slabSize);
+        this.freeBlocks = new ArrayDeque[Integer.SIZE + 1];
+        for (int i = 0; i < freeBlocks.length; i++) {
+            freeBlocks[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * <p>
+     * Moves the value of an entry off the heap.
+     * </p>
+     *
+     * @param entry
+     *            the entry holding the loaded value.
+     * @return an entry holding a {@link Ref} to the stored value, or the entry
+     *         itself when the value is not serializable, larger than a slab or
+     *         the store is full.
+     */
+    CacheEntry store(CacheEntry entry) {
+        byte[] bytes = serialize(entry.value());
+        Ref ref = bytes == null || bytes.length > slabSize - STAMP ? null : write(bytes);
+        if (ref == null) {
+            heapFallbacks.increment();
+            return entry;
+        }
+        return new CacheEntry(ref, entry.loadedAt());
+    }
+
+    /**
+     * <p>
+     * Reads the value an entry refers to back onto the heap.
+     * </p>
+     *
+     * @param entry
+     *            the entry, may be {@code null}.
+     * @return the entry itself when its value is on the heap, a new entry
+     *         holding the deserialized value, or {@code null} when the entry is
+     *         {@code null} or its value has been released meanwhile.
+     */
+    static CacheEntry resolve(CacheEntry entry) {
+        if (entry == null || !(entry.value() instanceof Ref ref)) {
+            return entry;
+        }
+        Object value = ref.store.read(ref);
+        return value == null ? null : new CacheEntry(value, entry.loadedAt());
+    }
+
+    /**
+     * <p>
+     * Releases the off-heap value of an entry that left the cache. Entries
+     * holding on-heap values are ignored.
+     * </p>
+     *
+     * @param entry
+     *            the removed entry, may be {@code null}.
+     */
+    static void release(Object entry) {
+        if (entry instanceof CacheEntry cacheEntry && cacheEntry.value() instanceof Ref ref) {
+            ref.store.release(ref);
+        }
+    }
+
+    /**
+     * Returns the memory reserved by the allocated slabs.
+     *
+     * @return the allocated bytes.
+     */
+    synchronized long getAllocatedBytes() {
+        return (long) allocatedSlabs * slabSize;
+    }
+
+    /**
+     * Returns the bytes of the values currently referenced by cache entries.
+     *
+     * @return the used bytes.
+     */
+    synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Returns the number of values of {@code OFF_HEAP} caches kept on the heap
+     * instead.
+     *
+     * @return the heap fallback count.
+     */
+    long getHeapFallbacks() {
+        return heapFallbacks.sum();
+    }
+
+    private synchronized Ref write(byte[] bytes) {
+        int size = blockSize(bytes.length);
+        Ref free = freeBlocks[sizeClass(size)].poll();
+        Slab slab;
+        int offset;
+        if (free != null) {
+            slab = free.slab;
+            offset = free.offset;
+        } else {
+            if ((current == null || current.position + size > slabSize) && !nextSlab()) {
+                return null;
+            }
+            slab = current;
+            offset = slab.position;
+            slab.position += size;
+        }
+        long stamp = ++lastStamp;
+        // the cleared stamp must be visible before the block is overwritten
+        VarHandle.storeStoreFence();
+        slab.buffer.put(offset + STAMP, bytes);
+        VarHandle.storeStoreFence();
+        slab.buffer.putLong(offset, stamp);
+        usedBytes += bytes.length;
+        return new Ref(this, slab, offset, stamp, bytes.length);
+    }
+
+    private Object read(Ref ref) {
+        ByteBuffer buffer = ref.slab.buffer;
+        if (buffer.getLong(ref.offset) != ref.stamp) {
+            return null;
+        }
+        VarHandle.acquireFence();
+        byte[] bytes = new byte[ref.length];
+        buffer.get(ref.offset + STAMP, bytes);
+        // the copy must happen before the stamp is checked again
+        VarHandle.acquireFence();
+        if (buffer.getLong(ref.offset) != ref.stamp) {
+            return null;
+        }
+        return deserialize(bytes);
+    }
+
+    private synchronized void release(Ref ref) {
+        if (ref.released) {
+            return;
+        }
+        ref.released = true;
+        ref.slab.buffer.putLong(ref.offset, 0L);
+        usedBytes -= ref.length;
+        freeBlocks[sizeClass(blockSize(ref.length))].push(ref);
+    }
+
+    private boolean nextSlab() {
+        if (allocatedSlabs >= maxSlabs) {
+            log.debug("Off-heap cache store is full, keep value on the heap");
+            return false;
+        }
+        current = new Slab(ByteBuffer.allocateDirect(slabSize));
+        allocatedSlabs++;
+        return true;
+    }
+
+    /**
+     * Returns the size of the block holding a value of {@code length} bytes and
+     * its stamp: the next power of two, or the whole slab.
+     */
+    private int blockSize(int length) {
+        int needed = length + STAMP;
+        int size = needed <= MIN_BLOCK ? MIN_BLOCK : Integer.highestOneBit(needed - 1) << 1;
+        return size <= 0 || size > slabSize ? slabSize : size;
+    }
+
+    private static int sizeClass(int blockSize) {
+        return Integer.bitCount(blockSize) == 1 ? Integer.numberOfTrailingZeros(blockSize) : Integer.SIZE;
+    }
+
+    private static byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            log.debug("Keep non serializable cache value on the heap", e);
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in =
+                new ConfigurableObjectInputStream(new ByteArrayInputStream(bytes), ClassUtils.getDefaultClassLoader())) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            log.warn("Failed to read off-heap cache value", e);
+            return null;
+        }
+    }
+
+    private static final class Slab {
+
+        private final ByteBuffer buffer;
+        private int position;
+
+        private Slab(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * <p>
+     * On-heap handle of a value stored off the heap. Once released, the handle
+     * also describes a free block.
+     * </p>
+     */
+    static final class Ref {
+
+        private final OffHeapStore store;
+        private final Slab slab;
+        private final int offset;
+        private final long stamp;
+        private final int length;
+        private boolean released;
+
+        private Ref(OffHeapStore store, Slab slab, int offset, long stamp, int length) {
+            this.store = store;
+            this.slab = slab;
+            this.offset = offset;
+            this.stamp = stamp;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import java.time.Duration;
+import reactor.core.publisher.Mono;
+
+/**
+ * <p>
+ * The {@code RemoteCacheStore} interface is the SPI of the shared second-level
+ * (L2) tier behind {@link CacheStore}. When a
+ * {@link com.reactify.cache.LocalCache} method uses
+ * {@link com.reactify.cache.LocalCache.Tier#LOCAL_AND_REMOTE}, a miss in
+ * the local Caffeine cache is looked up in the remote store before the method
+ * is invoked, and loaded results are written back to it so that other
+ * instances can reuse them.
+ * </p>
+ *
+ * <p>
+ * Register an implementation as a Spring bean to enable the tier. Keys and
+ * values are the objects used by the local cache; implementations are
+ * responsible for serializing them. All operations must be non-blocking.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public interface RemoteCacheStore {
+
+    /**
+     * <p>
+     * Looks up a value.
+     * </p>
+     *
+     * @param cacheName
+     *            the cache name, {@code SimpleClassName.methodName}.
+     * @param key
+     *            the cache key.
+     * @return a {@link Mono} emitting the cached value, or empty on a miss.
+     */
+    Mono<Object> get(String cacheName, Object key);
+
+    /**
+     * <p>
+     * Stores a value.
+     * </p>
+     *
+     * @param cacheName
+     *            the cache name.
+     * @param key
+     *            the cache key.
+     * @param value
+     *            the value to store, never {@code null}.
+     * @param ttl
+     *            how long the value stays valid.
+     * @return a {@link Mono} completing when the value is stored.
+     */
+    Mono<Void> put(String cacheName, Object key, Object value, Duration ttl);
+
+    /**
+     * <p>
+     * Removes one value.
+     * </p>
+     *
+     * @param cacheName
+     *            the cache name.
+     * @param key
+     *            the cache key.
+     * @return a {@link Mono} completing when the value is removed.
+     */
+    Mono<Void> invalidate(String cacheName, Object key);
+
+    /**
+     * <p>
+     * Removes every value of a cache.
+     * </p>
+     *
+     * @param cacheName
+     *            the cache name.
+     * @return a {@link Mono} completing when the values are removed.
+     */
+    Mono<Void> invalidateAll(String cacheName);
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import static com.reactify.cache.CacheTestSupport.proxy;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class CacheAspectCoalescingTest {
+
+    @Test
+    void concurrentMissesInvokeTheMethodOnce() {
+        CoalescedService target = new CoalescedService();
+        CoalescedService service = proxy(target);
+
+        List<Mono<String>> callers = List.of(service.find("a"), service.find("a"), service.find("a"));
+        Flux<String> results = Flux.merge(callers);
+
+        StepVerifier.create(results)
+                .then(() -> target.pending.tryEmitValue("value-a"))
+                .expectNext("value-a", "value-a", "value-a")
+                .verifyComplete();
+        assertThat(target.calls).hasValue(1);
+
+        StepVerifier.create(service.find("a")).expectNext("value-a").verifyComplete();
+        assertThat(target.calls).hasValue(1);
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        FailingService target = new FailingService();
+        FailingService service = proxy(target);
+
+        StepVerifier.create(service.find("b")).verifyError(IllegalStateException.class);
+        StepVerifier.create(service.find("b")).expectNext("recovered").verifyComplete();
+        assertThat(target.calls).hasValue(2);
+    }
+
+    static class CoalescedService {
+        final AtomicInteger calls = new AtomicInteger();
+        final Sinks.One<String> pending = Sinks.one();
+
+        @LocalCache
+        public Mono<String> find(String id) {
+            calls.incrementAndGet();
+            return pending.asMono().delaySubscription(Duration.ofMillis(10));
+        }
+    }
+
+    static class FailingService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @LocalCache
+        public Mono<String> find(String id) {
+            return calls.incrementAndGet() == 1
+                    ? Mono.error(new IllegalStateException("first call fails"))
+                    : Mono.just("recovered");
+        }
+    }
+}
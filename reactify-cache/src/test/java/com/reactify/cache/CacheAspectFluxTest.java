@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import static com.reactify.cache.CacheTestSupport.proxy;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class CacheAspectFluxTest {
+
+    @Test
+    void elementsReachTheLoaderBeforeTheFluxCompletes() {
+        StreamingService target = new StreamingService();
+        StreamingService service = proxy(target);
+
+        StepVerifier.create(service.list())
+                .then(() -> target.source.tryEmitNext("a"))
+                .expectNext("a")
+                .then(() -> target.source.tryEmitNext("b"))
+                .expectNext("b")
+                .then(target.source::tryEmitComplete)
+                .verifyComplete();
+
+        StepVerifier.create(service.list()).expectNext("a", "b").verifyComplete();
+        assertThat(target.calls).hasValue(1);
+    }
+
+    @Test
+    void resultLargerThanMaxElementsIsDeliveredButNotKept() {
+        BoundedService target = new BoundedService();
+        BoundedService service = proxy(target);
+
+        StepVerifier.create(service.list()).expectNext(1, 2, 3).verifyComplete();
+        StepVerifier.create(service.list()).expectNext(1, 2, 3).verifyComplete();
+        assertThat(target.calls).hasValue(2);
+    }
+
+    @Test
+    void emptyFluxIsCached() {
+        BoundedService target = new BoundedService();
+        BoundedService service = proxy(target);
+
+        StepVerifier.create(service.none()).verifyComplete();
+        StepVerifier.create(service.none()).verifyComplete();
+        assertThat(target.emptyCalls).hasValue(1);
+    }
+
+    static class StreamingService {
+        final AtomicInteger calls = new AtomicInteger();
+        final Sinks.Many<String> source = Sinks.many().unicast().onBackpressureBuffer();
+
+        @LocalCache
+        public Flux<String> list() {
+            calls.incrementAndGet();
+            return source.asFlux();
+        }
+    }
+
+    static class BoundedService {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger emptyCalls = new AtomicInteger();
+
+        @LocalCache(maxElements = 2)
+        public Flux<Integer> list() {
+            calls.incrementAndGet();
+            return Flux.just(1, 2, 3);
+        }
+
+        @LocalCache
+        public Flux<Integer> none() {
+            emptyCalls.incrementAndGet();
+            return Flux.empty();
+        }
+    }
+}
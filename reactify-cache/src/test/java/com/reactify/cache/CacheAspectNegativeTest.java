@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import static com.reactify.cache.CacheTestSupport.proxy;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class CacheAspectNegativeTest {
+
+    @Test
+    void emptyResultIsCachedForNegativeTtl() {
+        EmptyService target = new EmptyService();
+        EmptyService service = proxy(target);
+
+        StepVerifier.create(service.find("missing")).verifyComplete();
+        StepVerifier.create(service.find("missing")).verifyComplete();
+        assertThat(target.calls).hasValue(1);
+    }
+
+    @Test
+    void emptyResultIsNotCachedByDefault() {
+        UncachedEmptyService target = new UncachedEmptyService();
+        UncachedEmptyService service = proxy(target);
+
+        StepVerifier.create(service.find("missing")).verifyComplete();
+        StepVerifier.create(service.find("missing")).verifyComplete();
+        assertThat(target.calls).hasValue(2);
+    }
+
+    @Test
+    void cachedErrorIsReplayedAsNewInstance() {
+        ErrorService target = new ErrorService();
+        ErrorService service = proxy(target);
+        AtomicReference<Throwable> first = new AtomicReference<>();
+
+        StepVerifier.create(service.find("down")).consumeErrorWith(first::set).verify();
+        StepVerifier.create(service.find("down"))
+                .consumeErrorWith(error -> {
+                    assertThat(error).isInstanceOf(IllegalStateException.class).hasMessage("down is unavailable");
+                    assertThat(error).isNotSameAs(first.get());
+                })
+                .verify();
+        assertThat(target.calls).hasValue(1);
+    }
+
+    @Test
+    void errorsOutsideCacheErrorsAreNotCached() {
+        SelectiveErrorService target = new SelectiveErrorService();
+        SelectiveErrorService service = proxy(target);
+
+        StepVerifier.create(service.find("bad")).verifyError(IllegalArgumentException.class);
+        StepVerifier.create(service.find("bad")).verifyError(IllegalArgumentException.class);
+        assertThat(target.calls).hasValue(2);
+    }
+
+    @Test
+    void errorsWithoutStringConstructorAreNotCached() {
+        OpaqueErrorService target = new OpaqueErrorService();
+        OpaqueErrorService service = proxy(target);
+
+        StepVerifier.create(service.find("opaque")).verifyError(OpaqueException.class);
+        StepVerifier.create(service.find("opaque")).verifyError(OpaqueException.class);
+        assertThat(target.calls).hasValue(2);
+    }
+
+    static class EmptyService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @LocalCache(negativeTtl = 60)
+        public Mono<String> find(String id) {
+            calls.incrementAndGet();
+            return Mono.empty();
+        }
+    }
+
+    static class UncachedEmptyService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @LocalCache
+        public Mono<String> find(String id) {
+            calls.incrementAndGet();
+            return Mono.empty();
+        }
+    }
+
+    static class ErrorService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @LocalCache(errorTtl = 60)
+        public Mono<String> find(String id) {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException(id + " is unavailable"));
+        }
+    }
+
+    static class SelectiveErrorService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @LocalCache(errorTtl = 60, cacheErrors = IllegalStateException.class)
+        public Mono<String> find(String id) {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalArgumentException(id));
+        }
+    }
+
+    static class OpaqueErrorService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @LocalCache(errorTtl = 60)
+        public Mono<String> find(String id) {
+            calls.incrementAndGet();
+            return Mono.error(new OpaqueException(id.length()));
+        }
+    }
+
+    static class OpaqueException extends RuntimeException {
+        OpaqueException(int code) {
+            super("code " + code);
+        }
+    }
+}
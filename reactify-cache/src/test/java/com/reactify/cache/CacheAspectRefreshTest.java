@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import static com.reactify.cache.CacheTestSupport.proxy;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class CacheAspectRefreshTest {
+
+    @Test
+    void staleEntryIsServedWhileASingleRefreshRuns() throws Exception {
+        RefreshedService target = new RefreshedService();
+        RefreshedService service = proxy(target);
+        Object key = stale(target, "old");
+
+        StepVerifier.create(service.find()).expectNext("old").verifyComplete();
+        StepVerifier.create(service.find()).expectNext("old").verifyComplete();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> StepVerifier.create(service.find())
+                .expectNext("value-1")
+                .verifyComplete());
+        assertThat(target.calls).hasValue(1);
+        CacheDefinition definition =
+                CacheStore.getDefinition(RefreshedService.class.getMethod("find"), RefreshedService.class);
+        CacheEntry refreshed = CacheAspect.completedEntry(definition.getCache().getIfPresent(key));
+        assertThat(definition.needsRefresh(refreshed)).isFalse();
+    }
+
+    @Test
+    void failedRefreshKeepsTheCurrentEntry() throws Exception {
+        BrokenRefreshService target = new BrokenRefreshService();
+        BrokenRefreshService service = proxy(target);
+        stale(target, "kept");
+
+        StepVerifier.create(service.find()).expectNext("kept").verifyComplete();
+        await().atMost(Duration.ofSeconds(5)).until(() -> target.calls.get() == 1);
+
+        StepVerifier.create(service.find()).expectNext("kept").verifyComplete();
+    }
+
+    /**
+     * Registers the cache of the {@code find} method of a target and stores an
+     * entry loaded long before its refresh age.
+     *
+     * @return the key of the entry.
+     */
+    private static Object stale(Object target, String value) throws Exception {
+        CacheDefinition definition =
+                CacheStore.getDefinition(target.getClass().getMethod("find"), target.getClass());
+        Object key = definition.generateKey(target, new Object[0]);
+        CacheEntry old = new CacheEntry(value, System.nanoTime() - TimeUnit.MINUTES.toNanos(2));
+        definition.getCache().put(key, CompletableFuture.completedFuture(old));
+        return key;
+    }
+
+    static class RefreshedService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @LocalCache(refreshAfter = 1)
+        public Mono<String> find() {
+            return Mono.fromSupplier(() -> "value-" + calls.incrementAndGet()).delayElement(Duration.ofMillis(200));
+        }
+    }
+
+    static class BrokenRefreshService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @LocalCache(refreshAfter = 1)
+        public Mono<String> find() {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("backend down"));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import static com.reactify.cache.CacheTestSupport.proxy;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class CacheInvalidationBusTest {
+
+    private final RecordingTransport transport = new RecordingTransport();
+    private CacheInvalidationBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null) {
+            bus.destroy();
+        }
+    }
+
+    @Test
+    void mergeDropsDuplicatesAndKeysOfClearedCaches() {
+        List<CacheInvalidation> merged = CacheInvalidationBus.merge(List.of(
+                CacheInvalidation.key("a", 1),
+                CacheInvalidation.key("b", 1),
+                CacheInvalidation.key("b", 1),
+                CacheInvalidation.cache("a"),
+                CacheInvalidation.key("a", 2)));
+
+        assertThat(merged).containsExactly(CacheInvalidation.key("b", 1), CacheInvalidation.cache("a"));
+    }
+
+    @Test
+    void mergeCollapsesToInvalidateAll() {
+        List<CacheInvalidation> merged = CacheInvalidationBus.merge(
+                List.of(CacheInvalidation.key("a", 1), CacheInvalidation.all(), CacheInvalidation.cache("b")));
+
+        assertThat(merged).containsExactly(CacheInvalidation.all());
+    }
+
+    @Test
+    void invalidationsAreBatchedBeforeBeingPublished() {
+        bus = newBus(Duration.ofMillis(50));
+
+        bus.publish(CacheInvalidation.key("a", 1));
+        bus.publish(CacheInvalidation.key("a", 1));
+        bus.publish(CacheInvalidation.key("a", 2));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !transport.published.isEmpty());
+        assertThat(transport.published).hasSize(1);
+        assertThat(transport.published.get(0).invalidations())
+                .containsExactly(CacheInvalidation.key("a", 1), CacheInvalidation.key("a", 2));
+    }
+
+    @Test
+    void batchesOfOtherInstancesAreAppliedLocally() throws Exception {
+        InvalidatedService target = new InvalidatedService();
+        InvalidatedService service = proxy(target);
+        service.find("x").block();
+        CacheDefinition definition =
+                CacheStore.getDefinition(InvalidatedService.class.getMethod("find", String.class), target.getClass());
+        Object key = definition.generateKey(target, new Object[] {"x"});
+        assertThat(definition.getCache().getIfPresent(key)).isNotNull();
+        bus = newBus(Duration.ofMillis(50));
+
+        CacheInvalidation invalidation = CacheInvalidation.key(definition.getName(), key);
+        transport.received.tryEmitNext(new CacheInvalidationBatch("another-instance", List.of(invalidation)));
+
+        assertThat(definition.getCache().getIfPresent(key)).isNull();
+    }
+
+    private CacheInvalidationBus newBus(Duration window) {
+        LocalCacheProperties properties = new LocalCacheProperties();
+        properties.getInvalidation().setWindow(window);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("transport", transport);
+        return new CacheInvalidationBus(properties, beanFactory.getBeanProvider(CacheInvalidationTransport.class));
+    }
+
+    static class RecordingTransport implements CacheInvalidationTransport {
+        final List<CacheInvalidationBatch> published = new CopyOnWriteArrayList<>();
+        final Sinks.Many<CacheInvalidationBatch> received =
+                Sinks.many().multicast().directBestEffort();
+
+        @Override
+        public Mono<Void> publish(CacheInvalidationBatch batch) {
+            return Mono.fromRunnable(() -> published.add(batch));
+        }
+
+        @Override
+        public Flux<CacheInvalidationBatch> receive() {
+            return received.asFlux();
+        }
+    }
+
+    static class InvalidatedService {
+        @LocalCache
+        public Mono<String> find(String id) {
+            return Mono.just("value-" + id);
+        }
+    }
+}
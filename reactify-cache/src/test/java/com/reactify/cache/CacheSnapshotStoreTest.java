@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import static com.reactify.cache.CacheTestSupport.proxy;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class CacheSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final SnapshotService target = new SnapshotService();
+    private final SnapshotService service = proxy(target);
+    private LocalCacheProperties.Snapshot settings;
+
+    @BeforeEach
+    void setUp() {
+        settings = new LocalCacheProperties.Snapshot();
+        settings.setFile(directory.resolve("snapshots/local-cache.snapshot").toString());
+        service.find("a").block();
+        service.list().collectList().block();
+        service.payload().block();
+    }
+
+    @Test
+    void entriesAreRestoredAfterARestart() {
+        new CacheSnapshotStore(settings, "1.0").write(definitions());
+        clear();
+
+        new CacheSnapshotStore(settings, "1.0").restore(byName());
+
+        assertThat(size("find")).isEqualTo(1);
+        assertThat(size("list")).isEqualTo(1);
+        assertThat(service.find("a").block()).isEqualTo("value-a");
+        assertThat(service.list().collectList().block()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void snapshotOfAnotherVersionIsIgnored() {
+        new CacheSnapshotStore(settings, "1.0").write(definitions());
+        clear();
+
+        new CacheSnapshotStore(settings, "2.0").restore(byName());
+
+        assertThat(size("find")).isZero();
+        assertThat(size("list")).isZero();
+    }
+
+    @Test
+    void classesOutsideTheAllowListAreNotRestored() {
+        new CacheSnapshotStore(settings, "1.0").write(definitions());
+        clear();
+
+        new CacheSnapshotStore(settings, "1.0").restore(byName());
+        assertThat(size("payload")).isZero();
+
+        settings.setAllowedClasses(List.of(Payload.class.getName()));
+        new CacheSnapshotStore(settings, "1.0").restore(byName());
+        assertThat(size("payload")).isEqualTo(1);
+    }
+
+    @Test
+    void snapshotWithCorruptLengthIsSkipped() throws Exception {
+        new CacheSnapshotStore(settings, "1.0").write(definitions());
+        clear();
+        Path file = Path.of(settings.getFile());
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        bytes.putInt(8, Integer.MAX_VALUE - 8);
+        Files.write(file, bytes.array());
+
+        assertThatCode(() -> new CacheSnapshotStore(settings, "1.0").restore(byName()))
+                .doesNotThrowAnyException();
+        assertThat(size("find")).isZero();
+        assertThat(size("list")).isZero();
+    }
+
+    @Test
+    void snapshotWithCorruptRecordLengthIsSkipped() throws Exception {
+        new CacheSnapshotStore(settings, "1.0").write(definitions());
+        clear();
+        Path file = Path.of(settings.getFile());
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        int firstCacheName = 8 + Integer.BYTES + "1.0".length() + Long.BYTES + Integer.BYTES;
+        bytes.putInt(firstCacheName + Integer.BYTES + bytes.getInt(firstCacheName), Integer.MAX_VALUE - 8);
+        Files.write(file, bytes.array());
+
+        assertThatCode(() -> new CacheSnapshotStore(settings, "1.0").restore(byName()))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void snapshotIsOnlyReadableByItsOwner() throws Exception {
+        new CacheSnapshotStore(settings, "1.0").write(definitions());
+
+        Path file = Path.of(settings.getFile());
+        assertThat(file).isRegularFile();
+        if (Files.getFileStore(file).supportsFileAttributeView("posix")) {
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file)))
+                    .isEqualTo("rw-------");
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file.getParent())))
+                    .isEqualTo("rwx------");
+        }
+    }
+
+    private static List<CacheDefinition> definitions() {
+        return CacheStore.getDefinitions().stream()
+                .filter(definition -> definition.getName().startsWith("SnapshotService."))
+                .toList();
+    }
+
+    private static Map<String, CacheDefinition> byName() {
+        return Map.copyOf(definitions().stream()
+                .collect(Collectors.toMap(CacheDefinition::getName, definition -> definition)));
+    }
+
+    private static void clear() {
+        definitions().forEach(definition -> definition.getCache().synchronous().invalidateAll());
+    }
+
+    private static long size(String method) {
+        return byName().get("SnapshotService." + method).getCache().synchronous().estimatedSize();
+    }
+
+    record Payload(String name) implements Serializable {}
+
+    static class SnapshotService {
+        @LocalCache(snapshot = true)
+        public Mono<String> find(String id) {
+            return Mono.just("value-" + id);
+        }
+
+        @LocalCache(snapshot = true)
+        public Flux<Integer> list() {
+            return Flux.just(1, 2, 3);
+        }
+
+        @LocalCache(snapshot = true)
+        public Mono<Payload> payload() {
+            return Mono.just(new Payload("p"));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Builds {@link CacheAspect} proxies of plain objects, without a Spring context.
+ */
+final class CacheTestSupport {
+
+    private CacheTestSupport() {}
+
+    /**
+     * Proxies a target with the {@link CacheAspect}, as the auto-configuration
+     * does for beans.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(CacheAspect.class);
+        return (T) factory.getProxy();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class CacheWarmupTest {
+
+    private static GenericApplicationContext context;
+
+    private final List<CacheWarmup.Result> finished = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void startContext() {
+        context = new GenericApplicationContext();
+        context.registerBean(WarmedService.class);
+        context.refresh();
+        new ApplicationContextProvider().setApplicationContext(context);
+    }
+
+    @AfterAll
+    static void stopContext() {
+        context.close();
+    }
+
+    @Test
+    void notReadyUntilTheWarmupRuns() {
+        CacheWarmup warmup = new CacheWarmup(settings(Duration.ofSeconds(5)), finished::add);
+        assertThat(warmup.isStarted()).isFalse();
+        assertThat(warmup.isReady()).isFalse();
+
+        StepVerifier.create(warmup.run(Map.of())).verifyComplete();
+
+        assertThat(warmup.isStarted()).isTrue();
+        assertThat(warmup.isReady()).isTrue();
+    }
+
+    @Test
+    void transientFailuresAreRetried() throws Exception {
+        WarmedService service = context.getBean(WarmedService.class);
+        service.failures.set(2);
+        CacheWarmup warmup = new CacheWarmup(settings(Duration.ofSeconds(5)), finished::add);
+
+        Mono<Void> run = warmup.run(Map.of(method("load"), "WarmedService.load"));
+        assertThat(warmup.isReady()).isFalse();
+        StepVerifier.create(run).verifyComplete();
+
+        assertThat(warmup.isReady()).isTrue();
+        assertThat(finished).singleElement().satisfies(result -> {
+            assertThat(result.status()).isEqualTo(CacheWarmup.Status.LOADED);
+            assertThat(result.attempts()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void givesUpAfterMaxWait() throws Exception {
+        CacheWarmup warmup = new CacheWarmup(settings(Duration.ofSeconds(1)), finished::add);
+
+        StepVerifier.create(warmup.run(Map.of(method("broken"), "WarmedService.broken")))
+                .verifyComplete();
+
+        assertThat(warmup.isReady()).isTrue();
+        assertThat(finished).singleElement().satisfies(result -> {
+            assertThat(result.status()).isEqualTo(CacheWarmup.Status.FAILED);
+            assertThat(result.attempts()).isGreaterThan(1);
+        });
+    }
+
+    @Test
+    void nonCriticalCachesDoNotHoldReadiness() throws Exception {
+        LocalCacheProperties.AutoLoad settings = settings(Duration.ofSeconds(5));
+        settings.setCriticalCaches(List.of("WarmedService.load"));
+        CacheWarmup warmup = new CacheWarmup(settings, finished::add);
+
+        warmup.run(Map.of(method("load"), "WarmedService.load", method("slow"), "WarmedService.slow"))
+                .subscribe();
+
+        await().atMost(Duration.ofSeconds(1)).until(warmup::isReady);
+        assertThat(warmup.getResults())
+                .filteredOn(result -> result.cacheName().equals("WarmedService.slow"))
+                .singleElement()
+                .satisfies(result -> assertThat(result.status().isDone()).isFalse());
+    }
+
+    private static LocalCacheProperties.AutoLoad settings(Duration maxWait) {
+        LocalCacheProperties.AutoLoad settings = new LocalCacheProperties.AutoLoad();
+        settings.setRetryBackoff(Duration.ofMillis(10));
+        settings.setMaxRetryBackoff(Duration.ofMillis(20));
+        settings.setMaxWait(maxWait);
+        return settings;
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        return WarmedService.class.getMethod(name);
+    }
+
+    static class WarmedService {
+        final AtomicInteger failures = new AtomicInteger();
+
+        public Mono<String> load() {
+            return Mono.defer(() -> failures.getAndDecrement() > 0
+                    ? Mono.error(new IllegalStateException("not yet"))
+                    : Mono.just("loaded"));
+        }
+
+        public Mono<String> broken() {
+            return Mono.error(new IllegalStateException("always down"));
+        }
+
+        public Mono<String> slow() {
+            return Mono.just("slow").delayElement(Duration.ofSeconds(2));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import com.reactify.factory.ObjectMapperFactory;
+import com.reactify.model.logging.LogField;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * The {@code Log4jPerfLogSink} class writes each event as a JSON line to the
+ * {@code perfLogger}, leaving file layout and rotation to the logging
+ * configuration. It is the default {@link PerfLogSink}.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Slf4j
+public class Log4jPerfLogSink implements PerfLogSink {
+    private static final Logger logPerf = LoggerFactory.getLogger("perfLogger");
+
+    /**
+     * Constructs a new instance of {@code Log4jPerfLogSink}.
+     */
+    public Log4jPerfLogSink() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(LogField logField) {
+        try {
+            logPerf.info(ObjectMapperFactory.getInstance().writeValueAsString(logField));
+        } catch (Exception ex) {
+            log.error("Error while handle record queue: {}", ex.getMessage());
+        }
+    }
+}
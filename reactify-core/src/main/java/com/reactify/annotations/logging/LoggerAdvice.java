@@ -0,0 +1,203 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import com.reactify.annotations.LogPerformance;
+import com.reactify.exception.BusinessException;
+import com.reactify.util.DataUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import reactor.core.publisher.Flux;
+
+/**
+ * <p>
+ * The {@code LoggerAdvice} record is the immutable description of an advised
+ * method, resolved once per target class and method by
+ * {@link LoggerAspectUtils} so that an advised call does not reflect on
+ * {@link LogPerformance}, build names or look up timers again.
+ * </p>
+ *
+ * @param name
+ *            the method name, {@code SimpleClassName.methodName}, also used as
+ *            span name
+ * @param logType
+ *            the log type, the target class name unless set by
+ *            {@link LogPerformance#logType()}
+ * @param actionType
+ *            the action type, the target simple class name unless set by
+ *            {@link LogPerformance#actionType()}
+ * @param logInput
+ *            whether the arguments are logged
+ * @param logOutput
+ *            whether the response is logged
+ * @param title
+ *            the title of the log entry, may be {@code null}
+ * @param sampleRate
+ *            the head sampling probability of the pointcut of the method
+ * @param stats
+ *            the sampling state of the method, holding its threshold
+ * @param success
+ *            the timer of successful calls, {@code null} when metrics are
+ *            disabled
+ * @param businessError
+ *            the timer of calls failed with a {@link BusinessException},
+ *            {@code null} when metrics are disabled
+ * @param error
+ *            the timer of calls failed with any other error, {@code null} when
+ *            metrics are disabled
+ * @param stream
+ *            the meters of a method returning a {@link Flux}, {@code null} for
+ *            other methods or when metrics are disabled
+ * @author hoangtien2k3
+ */
+record LoggerAdvice(
+        String name,
+        String logType,
+        String actionType,
+        boolean logInput,
+        boolean logOutput,
+        String title,
+        double sampleRate,
+        LoggerSampler.MethodStats stats,
+        Timer success,
+        Timer businessError,
+        Timer error,
+        Stream stream) {
+
+    /**
+     * <p>
+     * Resolves the description of a method advised on a target class.
+     * </p>
+     *
+     * @param targetClass
+     *            the class of the advised bean
+     * @param method
+     *            the advised method
+     * @param sampler
+     *            the sampler holding the per-method state
+     * @param registry
+     *            the registry the timers of the method are registered in,
+     *            {@code null} when metrics are disabled
+     * @param metrics
+     *            the timer settings
+     * @return the description of the method
+     */
+    static LoggerAdvice of(
+            Class<?> targetClass,
+            Method method,
+            LoggerSampler sampler,
+            MeterRegistry registry,
+            LoggerProperties.Metrics metrics) {
+        LogPerformance logPerformance = method.getAnnotation(LogPerformance.class);
+        String name = targetClass.getSimpleName() + "." + method.getName();
+        String logType = targetClass.getName();
+        String actionType = targetClass.getSimpleName();
+        boolean logOutput = true;
+        boolean logInput = true;
+        String title = null;
+        if (logPerformance != null) {
+            if (!DataUtil.isNullOrEmpty(logPerformance.logType())) {
+                logType = logPerformance.logType();
+            }
+            if (!DataUtil.isNullOrEmpty(logPerformance.actionType())) {
+                actionType = logPerformance.actionType();
+            }
+            logOutput = logPerformance.logOutput();
+            logInput = logPerformance.logInput();
+            title = logPerformance.title();
+        }
+        double sampleRate = sampler.rate(LoggerSampler.pointcut(targetClass, logPerformance != null));
+        return new LoggerAdvice(
+                name,
+                logType,
+                actionType,
+                logInput,
+                logOutput,
+                title,
+                sampleRate,
+                sampler.stats(name),
+                timer(registry, metrics, name, "success"),
+                timer(registry, metrics, name, "business-error"),
+                timer(registry, metrics, name, "error"),
+                registry != null && Flux.class.isAssignableFrom(method.getReturnType())
+                        ? Stream.of(registry, metrics, name)
+                        : null);
+    }
+
+    /**
+     * <p>
+     * Returns the timer a call completed with the given error records into.
+     * </p>
+     *
+     * @param failure
+     *            the error of the call, {@code null} if it succeeded
+     * @return the timer, {@code null} when metrics are disabled
+     */
+    Timer timer(Throwable failure) {
+        if (failure == null) {
+            return success;
+        }
+        return failure instanceof BusinessException ? businessError : error;
+    }
+
+    private static Timer timer(MeterRegistry registry, LoggerProperties.Metrics metrics, String name, String result) {
+        if (registry == null) {
+            return null;
+        }
+        return Timer.builder(metrics.getName())
+                .description("Duration of advised method calls")
+                .tag("method", name)
+                .tag("result", result)
+                .serviceLevelObjectives(metrics.getSlo().toArray(Duration[]::new))
+                .publishPercentileHistogram(metrics.isPercentileHistogram())
+                .register(registry);
+    }
+
+    /**
+     * <p>
+     * Meters of a method returning a {@link Flux}, recorded once per
+     * subscription by {@link LoggerFluxOperator}.
+     * </p>
+     *
+     * @param cancelled
+     *            the timer of cancelled subscriptions, tagged with the
+     *            {@code cancelled} result
+     * @param firstElement
+     *            the timer of the time to the first element
+     * @param elements
+     *            the distribution of the number of elements per subscription
+     */
+    record Stream(Timer cancelled, Timer firstElement, DistributionSummary elements) {
+
+        private static Stream of(MeterRegistry registry, LoggerProperties.Metrics metrics, String name) {
+            return new Stream(
+                    timer(registry, metrics, name, "cancelled"),
+                    Timer.builder(metrics.getName() + ".first.element")
+                            .description("Time from subscription to the first element of advised Flux methods")
+                            .tag("method", name)
+                            .serviceLevelObjectives(metrics.getSlo().toArray(Duration[]::new))
+                            .publishPercentileHistogram(metrics.isPercentileHistogram())
+                            .register(registry),
+                    DistributionSummary.builder(metrics.getName() + ".elements")
+                            .description("Elements emitted per subscription of advised Flux methods")
+                            .tag("method", name)
+                            .register(registry));
+        }
+    }
+}
@@ -19,18 +19,26 @@ import brave.Span;
 import brave.Tracer;
 import com.reactify.annotations.LogPerformance;
 import com.reactify.exception.BusinessException;
-import com.reactify.util.DataUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.PostConstruct;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 import reactor.util.context.Context;
 
 /**
@@ -54,15 +62,37 @@ import reactor.util.context.Context;
  * property, which determines whether to log detailed exceptions.
  * </p>
  *
+ * <p>
+ * Every advised call also records into the {@code perf.method} Micrometer
+ * timer of its method, tagged with the {@code method} name and a
+ * {@code result} of {@code success}, {@code business-error} or {@code error},
+ * whatever its duration. The timers are registered once per advised method,
+ * which bounds their cardinality, and publish the configured service level
+ * objectives as histogram buckets. Methods returning a {@link Flux} also
+ * record a {@code cancelled} result, the {@code perf.method.first.element}
+ * timer and the {@code perf.method.elements} summary. The log events can be
+ * turned off with {@code application.perf-logging.log-enabled=false}, keeping
+ * only the timers.
+ * </p>
+ *
  * @author hoangtien2k3
  */
 @Component
 public class LoggerAspectUtils {
 
-    private static final Logger logPerf = LoggerFactory.getLogger("perfLogger");
     private static final Logger log = LoggerFactory.getLogger("LoggerAspect");
 
     private final Tracer tracer;
+    private final LoggerSampler sampler;
+    private final boolean logEnabled;
+    private final LoggerProperties.Metrics metrics;
+    private final MeterRegistry registry;
+    private final ClassValue<Map<Method, LoggerAdvice>> advices = new ClassValue<>() {
+        @Override
+        protected Map<Method, LoggerAdvice> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
 
     @Value("${debug.detailException:true}")
     private boolean detailException;
@@ -72,9 +102,24 @@ public class LoggerAspectUtils {
      *
      * @param tracer
      *            the tracer used for logging and tracing operations.
+     * @param sampler
+     *            decides which calls produce a performance log event.
+     * @param properties
+     *            the performance log settings.
+     * @param registryProvider
+     *            the registry of the method timers, the global registry when
+     *            the application defines none.
      */
-    public LoggerAspectUtils(Tracer tracer) {
+    public LoggerAspectUtils(
+            Tracer tracer,
+            LoggerSampler sampler,
+            LoggerProperties properties,
+            ObjectProvider<MeterRegistry> registryProvider) {
         this.tracer = tracer;
+        this.sampler = sampler;
+        this.logEnabled = properties.isLogEnabled();
+        this.metrics = properties.getMetrics();
+        this.registry = metrics.isEnabled() ? registryProvider.getIfAvailable(() -> Metrics.globalRegistry) : null;
     }
 
     @PostConstruct
@@ -87,6 +132,11 @@ public class LoggerAspectUtils {
      * performance data, including execution time.
      * </p>
      *
+     * <p>
+     * The {@link LogPerformance} settings and names of the method are resolved on
+     * its first call and cached per target class, see {@link LoggerAdvice}.
+     * </p>
+     *
      * @param joinPoint
      *            a {@link org.aspectj.lang.ProceedingJoinPoint} object representing
      *            the intercepted method call
@@ -96,50 +146,54 @@ public class LoggerAspectUtils {
      *             if any error occurs during the execution of the method
      */
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        LogPerformance logPerformance = method.getAnnotation(LogPerformance.class);
-
         long start = System.currentTimeMillis();
-        String name = joinPoint.getTarget().getClass().getSimpleName() + "."
-                + joinPoint.getSignature().getName();
+        long startNanos = System.nanoTime();
+        LoggerAdvice advice = advice(joinPoint);
+        boolean sampled = LoggerSampler.sample(advice.sampleRate());
 
-        String logType = joinPoint.getTarget().getClass().getName();
-        String actionType = joinPoint.getTarget().getClass().getSimpleName();
-        boolean logOutput = true;
-        boolean logInput = true;
-        String title = null;
-        if (logPerformance != null) {
-            if (!DataUtil.isNullOrEmpty(logPerformance.logType())) {
-                logType = logPerformance.logType();
-            }
-            if (!DataUtil.isNullOrEmpty(logPerformance.actionType())) {
-                actionType = logPerformance.actionType();
-            }
-            logOutput = logPerformance.logOutput();
-            logInput = logPerformance.logInput();
-            title = logPerformance.title();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            record(advice, startNanos, e);
+            throw e;
         }
-
-        Span newSpan = tracer.nextSpan().name(name);
-
-        var result = joinPoint.proceed();
         if (result instanceof Mono) {
-            return logMonoResult(
-                    joinPoint, start, (Mono<?>) result, newSpan, name, logType, actionType, logOutput, logInput, title);
+            return logMonoResult(joinPoint, start, startNanos, (Mono<?>) result, advice, sampled);
         }
         if (result instanceof Flux) {
-            return logFluxResult(
-                    joinPoint, start, (Flux<?>) result, newSpan, name, logType, actionType, logOutput, logInput, title);
+            return logFluxResult((Flux<?>) result, advice, sampled);
         } else {
+            record(advice, startNanos, null);
             return result;
         }
     }
 
+    private LoggerAdvice advice(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Map<Method, LoggerAdvice> byMethod = advices.get(targetClass);
+        LoggerAdvice advice = byMethod.get(method);
+        if (advice == null) {
+            advice = byMethod.computeIfAbsent(
+                    method, m -> LoggerAdvice.of(targetClass, m, sampler, registry, metrics));
+        }
+        return advice;
+    }
+
+    private static void record(LoggerAdvice advice, long startNanos, Throwable failure) {
+        Timer timer = advice.timer(failure);
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
     /**
      * <p>
      * Handles logging for methods that return a {@link Mono}. It records the input
-     * and output details as well as performance metrics.
+     * and output details as well as performance metrics. The trace span of the
+     * call is only created here, so calls returning neither a {@link Mono} nor
+     * a {@link Flux} do not pay for one.
      * </p>
      *
      * @param joinPoint
@@ -147,46 +201,31 @@ public class LoggerAspectUtils {
      *            method call
      * @param start
      *            the start time of the method execution in milliseconds
+     * @param startNanos
+     *            the start time of the method execution in nanoseconds, for
+     *            the timers
      * @param result
      *            the {@link Mono} result from the method execution
-     * @param newSpan
-     *            the {@link Span} representing the trace span for the execution
-     * @param name
-     *            the name of the method being executed
-     * @param logType
-     *            the type of logging to be used
-     * @param actionType
-     *            the action type for the logging
-     * @param logOutput
-     *            flag indicating whether to log output
-     * @param logInput
-     *            flag indicating whether to log input
-     * @param title
-     *            a title for the log entry
+     * @param advice
+     *            the description of the method being executed
+     * @param sampled
+     *            the head sampling decision of the call
      * @return a {@link Mono} containing the logged result
      */
     private Mono<?> logMonoResult(
             ProceedingJoinPoint joinPoint,
             long start,
+            long startNanos,
             Mono<?> result,
-            Span newSpan,
-            String name,
-            String logType,
-            String actionType,
-            boolean logOutput,
-            boolean logInput,
-            String title) {
+            LoggerAdvice advice,
+            boolean sampled) {
+        Span newSpan = tracer.nextSpan().name(advice.name());
         var contextRef = new AtomicReference<Context>();
         return result.doOnSuccess(o -> {
-                    Object[] args = null;
-                    if (logInput) {
-                        args = joinPoint.getArgs();
-                    }
-                    if (logOutput) {
-                        logPerf(contextRef, newSpan, name, start, "0", o, logType, actionType, args, title);
-                    } else {
-                        logPerf(contextRef, newSpan, name, start, "0", null, logType, actionType, args, title);
-                    }
+                    record(advice, startNanos, null);
+                    Object[] args = advice.logInput() ? joinPoint.getArgs() : null;
+                    Object output = advice.logOutput() ? o : null;
+                    logPerf(contextRef, newSpan, advice, sampled, false, start, "0", output, args);
                 })
                 .contextWrite(context -> {
                     contextRef.set(context);
@@ -196,105 +235,107 @@ public class LoggerAspectUtils {
                     if (detailException) log.error(" ", o);
                     else log.error(o.toString());
 
+                    record(advice, startNanos, o);
                     if (o instanceof BusinessException) {
-                        logPerf(contextRef, newSpan, name, start, "0", o, logType, actionType, null, title);
+                        logPerf(contextRef, newSpan, advice, sampled, true, start, "0", o, null);
                     } else {
-                        logPerf(contextRef, newSpan, name, start, "1", o, logType, actionType, null, title);
+                        logPerf(contextRef, newSpan, advice, sampled, true, start, "1", o, null);
                     }
                 });
     }
 
     /**
      * <p>
-     * Handles logging for methods that return a {@link Flux}. It records the
-     * completion and error details along with performance metrics.
+     * Handles logging for methods that return a {@link Flux}. Each subscription
+     * is metered by a single {@link LoggerFluxOperator}, which reports the time
+     * to the first element, the total duration, the element count and whether
+     * the subscription completed, failed or was cancelled.
+     * </p>
+     *
+     * <p>
+     * The result follows the {@link Mono} convention: "0" for a completed or
+     * cancelled subscription and for a {@link BusinessException}, "1" for any
+     * other error. One event is logged per subscription; when output logging is
+     * enabled, its response holds the stream statistics.
      * </p>
      *
-     * @param joinPoint
-     *            a {@link ProceedingJoinPoint} object representing the intercepted
-     *            method call
-     * @param start
-     *            the start time of the method execution in milliseconds
      * @param result
      *            the {@link Flux} result from the method execution
-     * @param newSpan
-     *            the {@link Span} representing the trace span for the execution
-     * @param name
-     *            the name of the method being executed
-     * @param logType
-     *            the type of logging to be used
-     * @param actionType
-     *            the action type for the logging
-     * @param logOutput
-     *            flag indicating whether to log output
-     * @param logInput
-     *            flag indicating whether to log input
-     * @param title
-     *            a title for the log entry
+     * @param advice
+     *            the description of the method being executed
+     * @param sampled
+     *            the head sampling decision of the call
      * @return a {@link Flux} containing the logged result
      */
-    private Flux<?> logFluxResult(
-            ProceedingJoinPoint joinPoint,
-            long start,
-            Flux<?> result,
-            Span newSpan,
-            String name,
-            String logType,
-            String actionType,
-            boolean logOutput,
-            boolean logInput,
-            String title) {
-        var contextRef = new AtomicReference<Context>();
-        return result.doFinally(
-                        o -> logPerf(contextRef, newSpan, name, start, "1", null, logType, actionType, null, title))
-                .contextWrite(context -> {
-                    contextRef.set(context);
-                    return context;
-                })
-                .doOnError(o -> logPerf(contextRef, newSpan, name, start, "0", o, logType, actionType, null, title));
+    private Flux<?> logFluxResult(Flux<?> result, LoggerAdvice advice, boolean sampled) {
+        Span newSpan = tracer.nextSpan().name(advice.name());
+        return new LoggerFluxOperator<>(result, subscription -> {
+            Throwable error = subscription.getError();
+            recordStream(advice, subscription);
+            if (error != null) {
+                if (detailException) log.error(" ", error);
+                else log.error(error.toString());
+            }
+
+            String code = error == null || error instanceof BusinessException ? "0" : "1";
+            Object response = error;
+            if (error == null && advice.logOutput()) {
+                Map<String, Object> stream = new LinkedHashMap<>();
+                stream.put("elements", subscription.getElements());
+                stream.put(
+                        "firstElementMillis",
+                        subscription.getElements() > 0
+                                ? TimeUnit.NANOSECONDS.toMillis(subscription.getFirstElementNanos())
+                                : null);
+                stream.put("cancelled", subscription.getSignal() == SignalType.CANCEL);
+                response = stream;
+            }
+            logPerf(
+                    new AtomicReference<>(subscription.currentContext()),
+                    newSpan,
+                    advice,
+                    sampled,
+                    error != null,
+                    subscription.getStartMillis(),
+                    code,
+                    response,
+                    null);
+        });
     }
 
-    /**
-     * <p>
-     * Logs performance metrics for successful method execution. It records the
-     * duration and the result of the method call.
-     * </p>
-     *
-     * @param contextRef
-     *            an {@link AtomicReference} containing the current context
-     * @param newSpan
-     *            the {@link Span} representing the trace span for the execution
-     * @param name
-     *            the name of the method being executed
-     * @param start
-     *            the start time of the method execution in milliseconds
-     * @param result
-     *            a string indicating the result status ("0" for success, "1" for
-     *            failure)
-     * @param o
-     *            the output object from the method execution, may be {@code null}
-     */
-    private void logPerf(
-            AtomicReference<Context> contextRef, Span newSpan, String name, Long start, String result, Object o) {
-        newSpan.finish();
-        long duration = System.currentTimeMillis() - start;
-        if (duration < 50) return;
-        logPerf.info("{} {} {} M2 {}", name, duration, result, o == null ? "-" : o.toString());
+    private static void recordStream(LoggerAdvice advice, LoggerFluxOperator.MeteredSubscriber<?> subscription) {
+        LoggerAdvice.Stream stream = advice.stream();
+        Timer timer = subscription.getSignal() == SignalType.CANCEL
+                ? (stream != null ? stream.cancelled() : null)
+                : advice.timer(subscription.getError());
+        if (timer != null) {
+            timer.record(subscription.getDurationNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (stream != null) {
+            if (subscription.getElements() > 0) {
+                stream.firstElement().record(subscription.getFirstElementNanos(), TimeUnit.NANOSECONDS);
+            }
+            stream.elements().record(subscription.getElements());
+        }
     }
 
     /**
      * <p>
      * Logs performance metrics, including the method's execution details, input
      * parameters, output results, and action type. The logging is performed only if
-     * the execution duration exceeds a specified threshold.
+     * it is enabled and the {@link LoggerSampler} retains the call.
      * </p>
      *
      * @param contextRef
      *            an {@link AtomicReference} containing the current context
      * @param newSpan
      *            the {@link Span} representing the trace span for the execution
-     * @param name
-     *            the name of the method being executed
+     * @param advice
+     *            the description of the method being executed
+     * @param sampled
+     *            the head sampling decision of the call
+     * @param error
+     *            whether the call failed
      * @param startTime
      *            the start time of the method execution in milliseconds
      * @param result
@@ -302,42 +343,38 @@ public class LoggerAspectUtils {
      *            failure)
      * @param obj
      *            the output object from the method execution, may be {@code null}
-     * @param logType
-     *            the type of logging to be used
-     * @param actionType
-     *            the action type for the logging
      * @param args
      *            the input arguments for the method execution
-     * @param title
-     *            a title for the log entry
      */
     private void logPerf(
             AtomicReference<Context> contextRef,
             Span newSpan,
-            String name,
-            Long startTime,
+            LoggerAdvice advice,
+            boolean sampled,
+            boolean error,
+            long startTime,
             String result,
             Object obj,
-            String logType,
-            String actionType,
-            Object[] args,
-            String title) {
+            Object[] args) {
         newSpan.finish();
+        if (!logEnabled) {
+            return;
+        }
         long endTime = System.currentTimeMillis();
-        if (endTime - startTime > 50) {
+        if (sampler.retain(advice.stats(), endTime - startTime, error, sampled)) {
             LoggerQueue.getInstance()
                     .addQueue(
                             contextRef,
                             newSpan,
-                            name,
+                            advice.name(),
                             startTime,
                             endTime,
                             result,
                             obj,
-                            logType,
-                            actionType,
+                            advice.logType(),
+                            advice.actionType(),
                             args,
-                            title);
+                            advice.title());
         }
     }
 }
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import static com.reactify.constants.Constants.MAX_BYTE;
+
+import brave.Span;
+import com.reactify.factory.ObjectMapperFactory;
+import com.reactify.model.logging.LoggerDTO;
+import com.reactify.util.DataUtil;
+import com.reactify.util.RequestUtils;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * <p>
+ * The {@code LoggerCapture} class turns a completed call into a compact
+ * {@link com.reactify.model.logging.LoggerDTO}. It runs on the thread that
+ * completes the call, often an event-loop thread, so it only extracts what the
+ * log line needs: the trace id, the request id and client address of the
+ * exchange found in the Reactor context, the timings, and references to the
+ * arguments and the response. Serializing them to JSON is left to
+ * {@link #toJson(Object)}, called by the {@link LoggerProcessor} thread when
+ * the event is written.
+ * </p>
+ *
+ * <p>
+ * Inputs and response are written into a per-thread buffer of
+ * {@link com.reactify.constants.Constants#MAX_BYTE} bytes, reused across
+ * calls. Serialization stops as soon as the buffer is full, so a large
+ * argument or response costs at most one buffer of work and is never
+ * serialized in full only to be truncated afterwards.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Slf4j
+public final class LoggerCapture {
+
+    private static final ThreadLocal<BoundedBuffer> BUFFERS = ThreadLocal.withInitial(() -> new BoundedBuffer(MAX_BYTE));
+
+    private LoggerCapture() {}
+
+    /**
+     * <p>
+     * Captures a completed call.
+     * </p>
+     *
+     * @param contextRef
+     *            the Reactor context of the call, may hold the
+     *            {@link ServerWebExchange}
+     * @param span
+     *            the span of the call
+     * @param service
+     *            the name of the service processing the request
+     * @param startTime
+     *            the start time in milliseconds
+     * @param endTime
+     *            the end time in milliseconds
+     * @param result
+     *            the result code
+     * @param response
+     *            the output of the call, may be {@code null}
+     * @param logType
+     *            the type of log
+     * @param actionType
+     *            the action type
+     * @param args
+     *            the arguments of the call, may be {@code null}
+     * @param title
+     *            the title of the log entry
+     * @return the compact {@link LoggerDTO}
+     */
+    public static LoggerDTO capture(
+            AtomicReference<Context> contextRef,
+            Span span,
+            String service,
+            long startTime,
+            long endTime,
+            String result,
+            Object response,
+            String logType,
+            String actionType,
+            Object[] args,
+            String title) {
+        String traceId = span == null ? "" : span.context().traceIdString();
+        String clientAddress = null;
+        String requestId = null;
+        Context context = contextRef == null ? null : contextRef.get();
+        if (context != null && context.hasKey(ServerWebExchange.class)) {
+            ServerHttpRequest request =
+                    context.<ServerWebExchange>get(ServerWebExchange.class).getRequest();
+            clientAddress = RequestUtils.getIpAddress(request);
+            String header = request.getHeaders().getFirst("Request-Id");
+            if (!DataUtil.isNullOrEmpty(header)) {
+                requestId = header;
+            }
+        }
+        List<Object> inputs = args == null ? null : getArgs(args);
+        Object output = response instanceof Optional<?> optional ? optional.orElse(null) : response;
+        return new LoggerDTO(
+                DataUtil.isNullOrEmpty(traceId) ? "" : traceId,
+                requestId,
+                clientAddress,
+                service,
+                startTime,
+                endTime,
+                result,
+                logType,
+                actionType,
+                title,
+                inputs,
+                output);
+    }
+
+    /**
+     * <p>
+     * Serializes a value to JSON, truncated to
+     * {@link com.reactify.constants.Constants#MAX_BYTE} bytes.
+     * </p>
+     *
+     * @param value
+     *            the value to serialize, may be {@code null}
+     * @return the JSON, or {@code null} when the value is {@code null} or
+     *         serialization fails
+     */
+    static String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        BoundedBuffer buffer = BUFFERS.get();
+        buffer.reset();
+        try {
+            ObjectMapperFactory.getInstance().writeValue(buffer, value);
+        } catch (IOException e) {
+            if (!buffer.isFull()) {
+                log.error("Error while serialize log value: {}", e.getMessage());
+                return null;
+            }
+        }
+        return buffer.toUtf8String();
+    }
+
+    /**
+     * <p>
+     * Filters out Mono and ServerWebExchange instances from the input arguments.
+     * </p>
+     *
+     * @param args
+     *            The original array of arguments.
+     * @return A list of non-Mono and non-ServerWebExchange arguments.
+     */
+    private static List<Object> getArgs(Object[] args) {
+        List<Object> listArg = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            if (!(arg instanceof Mono) && !(arg instanceof ServerWebExchange)) {
+                listArg.add(arg);
+            }
+        }
+        return listArg;
+    }
+
+    /**
+     * <p>
+     * Reusable output stream keeping the first {@code capacity} bytes written
+     * and failing the write that overflows it, which aborts serialization.
+     * </p>
+     */
+    private static final class BoundedBuffer extends OutputStream {
+
+        private static final IOException FULL = new Truncated();
+
+        private final byte[] bytes;
+        private int size;
+        private boolean full;
+
+        private BoundedBuffer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        private void reset() {
+            size = 0;
+            full = false;
+        }
+
+        private boolean isFull() {
+            return full;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (size == bytes.length) {
+                full = true;
+                throw FULL;
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] source, int offset, int length) throws IOException {
+            int copied = Math.min(length, bytes.length - size);
+            System.arraycopy(source, offset, bytes, size, copied);
+            size += copied;
+            if (copied < length) {
+                full = true;
+                throw FULL;
+            }
+        }
+
+        /**
+         * Signals a full buffer; shared, so it carries no stack trace.
+         */
+        private static final class Truncated extends IOException {
+
+            private Truncated() {
+                super("Log value truncated");
+            }
+
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        }
+
+        /**
+         * Decodes the buffer, dropping a multi-byte character cut by the
+         * truncation.
+         */
+        private String toUtf8String() {
+            int end = size;
+            if (full) {
+                int start = end;
+                while (start > 0 && (bytes[start - 1] & 0xC0) == 0x80) {
+                    start--;
+                }
+                if (start > 0) {
+                    int lead = bytes[start - 1] & 0xFF;
+                    int expected = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+                    if (end - (start - 1) < expected) {
+                        end = start - 1;
+                    }
+                }
+            }
+            return new String(bytes, 0, end, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxOperator;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+
+/**
+ * <p>
+ * The {@code LoggerFluxOperator} class meters each subscription to an advised
+ * {@link Flux} in a single operator: it counts the elements, takes the time of
+ * the first one and reports to a {@link Listener} once, when the subscription
+ * completes, fails or is cancelled.
+ * </p>
+ *
+ * <p>
+ * Times are taken from the subscription, so a resubscribed {@link Flux} is
+ * metered once per subscription. The element count and first element time are
+ * written by the thread delivering the elements and read on termination; a
+ * cancellation racing with an element may miss that element.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the elements
+ * @author hoangtien2k3
+ */
+final class LoggerFluxOperator<T> extends FluxOperator<T, T> {
+
+    private final Listener listener;
+
+    /**
+     * Constructs a new instance of {@code LoggerFluxOperator}.
+     *
+     * @param source
+     *            the advised {@link Flux}
+     * @param listener
+     *            notified when a subscription terminates
+     */
+    LoggerFluxOperator(Flux<? extends T> source, Listener listener) {
+        super(source);
+        this.listener = listener;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        source.subscribe(new MeteredSubscriber<>(actual, listener));
+    }
+
+    /**
+     * <p>
+     * Callback notified once per subscription, after the termination signal has
+     * been delivered downstream.
+     * </p>
+     */
+    @FunctionalInterface
+    interface Listener {
+
+        /**
+         * Called when a subscription completes, fails or is cancelled.
+         *
+         * @param subscription
+         *            the metered subscription
+         */
+        void onTerminate(MeteredSubscriber<?> subscription);
+    }
+
+    /**
+     * <p>
+     * Subscriber metering one subscription.
+     * </p>
+     *
+     * @param <T>
+     *            the type of the elements
+     */
+    static final class MeteredSubscriber<T> implements CoreSubscriber<T>, Subscription, Scannable {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<MeteredSubscriber> DONE =
+                AtomicIntegerFieldUpdater.newUpdater(MeteredSubscriber.class, "done");
+
+        private final CoreSubscriber<? super T> actual;
+        private final Listener listener;
+        private final long startMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        private long firstElementNanos;
+        private long elements;
+        private long endNanos;
+        private SignalType signal;
+        private Throwable error;
+        private Subscription s;
+        private volatile int done;
+
+        private MeteredSubscriber(CoreSubscriber<? super T> actual, Listener listener) {
+            this.actual = actual;
+            this.listener = listener;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onNext(T t) {
+            if (elements++ == 0) {
+                firstElementNanos = System.nanoTime() - startNanos;
+            }
+            actual.onNext(t);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onError(Throwable t) {
+            boolean first = terminate(SignalType.ON_ERROR, t);
+            actual.onError(t);
+            if (first) {
+                notifyListener();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void onComplete() {
+            boolean first = terminate(SignalType.ON_COMPLETE, null);
+            actual.onComplete();
+            if (first) {
+                notifyListener();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void request(long n) {
+            s.request(n);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void cancel() {
+            boolean first = terminate(SignalType.CANCEL, null);
+            s.cancel();
+            if (first) {
+                notifyListener();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Object scanUnsafe(Attr key) {
+            if (key == Attr.PARENT) return s;
+            if (key == Attr.ACTUAL) return actual;
+            if (key == Attr.TERMINATED) return done == 1 && signal != SignalType.CANCEL;
+            if (key == Attr.CANCELLED) return done == 1 && signal == SignalType.CANCEL;
+            if (key == Attr.RUN_STYLE) return Attr.RunStyle.SYNC;
+            return null;
+        }
+
+        private boolean terminate(SignalType signal, Throwable error) {
+            long now = System.nanoTime();
+            if (!DONE.compareAndSet(this, 0, 1)) {
+                return false;
+            }
+            this.endNanos = now;
+            this.signal = signal;
+            this.error = error;
+            return true;
+        }
+
+        private void notifyListener() {
+            try {
+                listener.onTerminate(this);
+            } catch (Throwable e) {
+                Operators.onErrorDropped(e, actual.currentContext());
+            }
+        }
+
+        /**
+         * Returns the wall clock time of the subscription, in milliseconds.
+         *
+         * @return the start time
+         */
+        long getStartMillis() {
+            return startMillis;
+        }
+
+        /**
+         * Returns the time from the subscription to its termination.
+         *
+         * @return the duration in nanoseconds
+         */
+        long getDurationNanos() {
+            return endNanos - startNanos;
+        }
+
+        /**
+         * Returns the time from the subscription to the first element.
+         *
+         * @return the duration in nanoseconds, meaningless if no element was
+         *         emitted
+         */
+        long getFirstElementNanos() {
+            return firstElementNanos;
+        }
+
+        /**
+         * Returns the number of elements emitted.
+         *
+         * @return the element count
+         */
+        long getElements() {
+            return elements;
+        }
+
+        /**
+         * Returns how the subscription terminated.
+         *
+         * @return {@link SignalType#ON_COMPLETE}, {@link SignalType#ON_ERROR} or
+         *         {@link SignalType#CANCEL}
+         */
+        SignalType getSignal() {
+            return signal;
+        }
+
+        /**
+         * Returns the error the subscription failed with.
+         *
+         * @return the error, {@code null} unless the signal is
+         *         {@link SignalType#ON_ERROR}
+         */
+        Throwable getError() {
+            return error;
+        }
+    }
+}
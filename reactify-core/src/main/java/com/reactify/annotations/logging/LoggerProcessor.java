@@ -0,0 +1,231 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import com.reactify.model.logging.LogField;
+import com.reactify.model.logging.LoggerDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToDoubleFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>
+ * The {@code LoggerProcessor} class is the single consumer of the
+ * {@link LoggerQueue}. A dedicated thread takes the queued
+ * {@link com.reactify.model.logging.LoggerDTO} events in batches as soon as
+ * they are published and writes them to the {@link PerfLogSink}, so events
+ * reach the log within milliseconds instead of waiting for a polling
+ * interval, and bursts are absorbed by the ring buffer instead of being lost.
+ * </p>
+ *
+ * <p>
+ * The thread sleeps for {@code idleWait} only when the queue is empty. On
+ * shutdown it writes the remaining events and then closes the sink; the
+ * shutdown waits for at most {@code shutdownTimeout}, after which the thread
+ * keeps draining in the background and closes the sink itself, so the sink is
+ * never closed under a running writer.
+ * </p>
+ *
+ * <p>
+ * The queue size and the number of queued, dropped, caller-written, written
+ * and failed events are exported as the {@code perf.log.queue.size} gauge and
+ * the {@code perf.log.events} counters, tagged with the {@code outcome}.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Component
+@Slf4j
+public class LoggerProcessor implements SmartLifecycle, MeterBinder {
+    private final LoggerProperties.Queue settings;
+    private final LoggerQueue queue;
+    private final PerfLogSink sink;
+    private final LongAdder countProcessed = new LongAdder();
+    private final LongAdder countFailed = new LongAdder();
+    private volatile boolean running;
+    private Thread worker;
+
+    /**
+     * Constructs a new instance of {@code LoggerProcessor} and installs the
+     * {@link LoggerQueue} configured by {@code properties}.
+     *
+     * @param properties
+     *            the performance log settings.
+     * @param sinkProvider
+     *            an application defined {@link PerfLogSink}, used instead of
+     *            the configured one when present.
+     */
+    public LoggerProcessor(LoggerProperties properties, ObjectProvider<PerfLogSink> sinkProvider) {
+        this.settings = properties.getQueue();
+        this.sink = sinkProvider.getIfAvailable(() -> createSink(properties.getSink()));
+        this.queue = LoggerQueue.configure(settings.getCapacity(), settings.getOverflowPolicy(), this::handle);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "perf-log-processor");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(settings.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn(
+                    "Performance log processor did not finish within {}, {} events still queued",
+                    settings.getShutdownTimeout(),
+                    queue.getQueueSize());
+        }
+    }
+
+    private static PerfLogSink createSink(LoggerProperties.Sink settings) {
+        return switch (settings.getType()) {
+            case MAPPED_FILE -> new MappedFilePerfLogSink(settings);
+            case LOG4J -> new Log4jPerfLogSink();
+        };
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Starts before, and stops after, the web server, so the events of the
+     * requests completed during a graceful shutdown are still written.
+     * </p>
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("perf.log.queue.size", queue, LoggerQueue::getQueueSize)
+                .description("Number of performance log events waiting to be written")
+                .register(registry);
+        eventCounter(registry, "queued", queue, LoggerQueue::getCountSuccess);
+        eventCounter(registry, "dropped", queue, LoggerQueue::getCountFalse);
+        eventCounter(registry, "caller_runs", queue, LoggerQueue::getCountCallerRuns);
+        eventCounter(registry, "written", countProcessed, LongAdder::sum);
+        eventCounter(registry, "failed", countFailed, LongAdder::sum);
+    }
+
+    private static <T> void eventCounter(
+            MeterRegistry registry, String outcome, T state, ToDoubleFunction<T> count) {
+        FunctionCounter.builder("perf.log.events", state, count)
+                .description("Performance log events by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * <p>
+     * Consumer loop: takes up to {@code batchSize} events at a time and writes
+     * them, sleeping only while the queue is empty. Once stopped, the loop ends
+     * after the queue has been drained and closes the sink.
+     * </p>
+     */
+    private void run() {
+        List<LoggerDTO> batch = new ArrayList<>(settings.getBatchSize());
+        long idleNanos = settings.getIdleWait().toNanos();
+        while (true) {
+            batch.clear();
+            if (queue.drainTo(batch, settings.getBatchSize()) == 0) {
+                if (!running) {
+                    sink.close();
+                    return;
+                }
+                LockSupport.parkNanos(this, idleNanos);
+                continue;
+            }
+            for (LoggerDTO record : batch) {
+                handle(record);
+            }
+        }
+    }
+
+    private void handle(LoggerDTO record) {
+        try {
+            process(record);
+            countProcessed.increment();
+        } catch (Exception e) {
+            countFailed.increment();
+            log.error("Error while handle record queue: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * <p>
+     * Writes a single LoggerDTO record. The record already holds the extracted
+     * trace id, request id and client address, see {@link LoggerCapture}; the
+     * inputs and response are serialized here, off the request thread.
+     * </p>
+     *
+     * @param record
+     *            The LoggerDTO record to process.
+     */
+    private void process(LoggerDTO record) {
+        if (record != null) {
+            sink.write(new LogField(
+                    record.traceId(),
+                    record.requestId(),
+                    record.service(),
+                    record.endTime() - record.startTime(),
+                    record.logType(),
+                    record.actionType(),
+                    record.startTime(),
+                    record.endTime(),
+                    record.clientAddress(),
+                    record.title(),
+                    LoggerCapture.toJson(record.inputs()),
+                    LoggerCapture.toJson(record.response()),
+                    record.result()));
+        }
+    }
+}
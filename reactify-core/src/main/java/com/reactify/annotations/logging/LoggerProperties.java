@@ -0,0 +1,325 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * <p>
+ * The {@code LoggerProperties} class holds the settings of the performance log
+ * pipeline fed by {@link LoggerAspectUtils}, bound from the
+ * {@code application.perf-logging} prefix.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Component
+@ConfigurationProperties(prefix = "application.perf-logging", ignoreInvalidFields = true)
+@Data
+public class LoggerProperties {
+
+    /**
+     * Whether advised calls are sent to the performance log; the method timers
+     * are recorded either way.
+     */
+    private boolean logEnabled = true;
+
+    /**
+     * Settings of the {@link LoggerQueue} and its {@link LoggerProcessor}.
+     */
+    private Queue queue = new Queue();
+
+    /**
+     * Settings of the {@link PerfLogSink} events are written to.
+     */
+    private Sink sink = new Sink();
+
+    /**
+     * Settings of the {@link LoggerSampler} deciding which calls are logged.
+     */
+    private Sampling sampling = new Sampling();
+
+    /**
+     * Settings of the timers recorded for each advised method.
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * Constructs a new instance of {@code LoggerProperties}.
+     */
+    public LoggerProperties() {}
+
+    /**
+     * <p>
+     * Settings of the {@link LoggerQueue} ring buffer and its consumer.
+     * </p>
+     */
+    @Data
+    public static class Queue {
+
+        /**
+         * Number of events the ring buffer holds, rounded up to a power of two.
+         */
+        private int capacity = 65536;
+
+        /**
+         * What happens to an event published while the ring buffer is full.
+         */
+        private LoggerQueue.OverflowPolicy overflowPolicy = LoggerQueue.OverflowPolicy.DROP;
+
+        /**
+         * Maximum number of events the consumer takes from the ring buffer at
+         * once.
+         */
+        private int batchSize = 512;
+
+        /**
+         * How long the consumer sleeps when the ring buffer is empty.
+         */
+        private Duration idleWait = Duration.ofMillis(1);
+
+        /**
+         * Maximum time spent writing the remaining events on shutdown.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Constructs a new instance of {@code Queue}.
+         */
+        public Queue() {}
+    }
+
+    /**
+     * <p>
+     * Settings of the {@link PerfLogSink}.
+     * </p>
+     */
+    @Data
+    public static class Sink {
+
+        /**
+         * Where events are written.
+         */
+        private Type type = Type.LOG4J;
+
+        /**
+         * Directory of the segment files of the {@code MAPPED_FILE} sink.
+         */
+        private String directory = Path.of(System.getProperty("java.io.tmpdir"), "reactify", "perf-log")
+                .toString();
+
+        /**
+         * Size of each segment file of the {@code MAPPED_FILE} sink.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Number of segment files the {@code MAPPED_FILE} sink keeps; older ones
+         * are deleted.
+         */
+        private int maxSegments = 16;
+
+        /**
+         * Constructs a new instance of {@code Sink}.
+         */
+        public Sink() {}
+
+        /**
+         * <p>
+         * The available sinks.
+         * </p>
+         */
+        public enum Type {
+            /**
+             * JSON lines written to the {@code perfLogger}, see
+             * {@link Log4jPerfLogSink}.
+             */
+            LOG4J,
+
+            /**
+             * Binary records in rolling memory-mapped files, see
+             * {@link MappedFilePerfLogSink}.
+             */
+            MAPPED_FILE
+        }
+    }
+
+    /**
+     * <p>
+     * Settings of the {@link LoggerSampler}.
+     * </p>
+     */
+    @Data
+    public static class Sampling {
+
+        /**
+         * Whether head sampling, rate limits and tail retention apply; when
+         * disabled, the default, every call longer than its threshold is logged.
+         */
+        private boolean enabled;
+
+        /**
+         * Duration a call must exceed to be logged, unless it is in the slow tail
+         * of its method.
+         */
+        private Duration threshold = Duration.ofMillis(50);
+
+        /**
+         * Thresholds overriding {@code threshold}, by method name
+         * ({@code SimpleClassName.methodName}).
+         */
+        private Map<String, Duration> thresholds = new HashMap<>();
+
+        /**
+         * Head sampling probability between 0 and 1 by pointcut:
+         * {@code controller}, {@code service}, {@code repository},
+         * {@code client} or {@code annotated}. Missing pointcuts are fully
+         * sampled.
+         */
+        private Map<String, Double> rates = new HashMap<>();
+
+        /**
+         * Whether failed calls are always logged.
+         */
+        private boolean keepErrors = true;
+
+        /**
+         * Per-method rate limit of sampled calls.
+         */
+        private RateLimit rateLimit = new RateLimit();
+
+        /**
+         * Tail-based retention of the slowest calls of each method.
+         */
+        private Tail tail = new Tail();
+
+        /**
+         * Constructs a new instance of {@code Sampling}.
+         */
+        public Sampling() {}
+
+        /**
+         * <p>
+         * Token bucket limiting the events of each method, slowed down as the
+         * {@link LoggerQueue} fills up.
+         * </p>
+         */
+        @Data
+        public static class RateLimit {
+
+            /**
+             * Events per second and per method when the queue is empty; 0
+             * disables the limit.
+             */
+            private double permitsPerSecond = 100;
+
+            /**
+             * Events a method may log at once above its rate.
+             */
+            private int burst = 50;
+
+            /**
+             * Constructs a new instance of {@code RateLimit}.
+             */
+            public RateLimit() {}
+        }
+
+        /**
+         * <p>
+         * Retention of the slowest calls of each method over a sliding window.
+         * </p>
+         */
+        @Data
+        public static class Tail {
+
+            /**
+             * Share of the slowest calls always logged, in percent; 0 disables
+             * tail retention.
+             */
+            private double percent = 1.0;
+
+            /**
+             * Length of the sliding window the share is computed over.
+             */
+            private Duration window = Duration.ofMinutes(1);
+
+            /**
+             * Calls a method must have made in the window before its tail is
+             * retained.
+             */
+            private int minSamples = 100;
+
+            /**
+             * Constructs a new instance of {@code Tail}.
+             */
+            public Tail() {}
+        }
+    }
+
+    /**
+     * <p>
+     * Settings of the Micrometer timers of advised methods.
+     * </p>
+     */
+    @Data
+    public static class Metrics {
+
+        /**
+         * Whether each advised method records into a timer.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Name of the timers, tagged with {@code method} and {@code result}.
+         */
+        private String name = "perf.method";
+
+        /**
+         * Service level objective boundaries published as histogram buckets.
+         */
+        private List<Duration> slo = List.of(
+                Duration.ofMillis(5),
+                Duration.ofMillis(10),
+                Duration.ofMillis(25),
+                Duration.ofMillis(50),
+                Duration.ofMillis(100),
+                Duration.ofMillis(250),
+                Duration.ofMillis(500),
+                Duration.ofSeconds(1),
+                Duration.ofMillis(2500),
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(10));
+
+        /**
+         * Whether the timers also publish a percentile histogram, for
+         * aggregable percentiles on backends that support it.
+         */
+        private boolean percentileHistogram = false;
+
+        /**
+         * Constructs a new instance of {@code Metrics}.
+         */
+        public Metrics() {}
+    }
+}
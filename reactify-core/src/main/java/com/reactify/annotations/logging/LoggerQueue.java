@@ -19,50 +19,91 @@ import brave.Span;
 import com.reactify.model.logging.LoggerDTO;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
-import lombok.Getter;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import reactor.util.context.Context;
 
 /**
  * <p>
- * The {@code LoggerQueue} class is a singleton that provides a thread-safe
- * queue for logging operations using an
- * {@link java.util.concurrent.ArrayBlockingQueue} to manage instances of
- * {@link com.reactify.model.logging.LoggerDTO}. It tracks the number of
- * successful and failed logging attempts.
+ * The {@code LoggerQueue} class is a singleton, lock-free, multi-producer
+ * single-consumer ring buffer of {@link com.reactify.model.logging.LoggerDTO}
+ * events. Any thread may publish an event; the events are consumed
+ * continuously, in batches, by the {@link LoggerProcessor}.
  * </p>
  *
  * <p>
- * This class ensures that logging tasks are queued efficiently and can be
- * processed asynchronously, making it suitable for high-throughput logging
- * scenarios.
+ * Producers claim a slot with a single compare-and-set on the tail sequence
+ * and publish the event by advancing the slot sequence, so publishing never
+ * blocks and never throws. When the ring buffer is full the event is handled
+ * according to the {@link OverflowPolicy}: it is either dropped, or written by
+ * the publishing thread itself, which slows producers down to the speed of the
+ * log output.
  * </p>
  *
  * <p>
- * The implementation follows the singleton design pattern to ensure that only
- * one instance of the {@code LoggerQueue} exists throughout the application.
- * </p>
- *
- * <p>
- * This class is annotated with {@link lombok.extern.slf4j.Slf4j} for logging
- * functionality.
+ * The number of published, dropped and caller-written events is tracked with
+ * atomic counters and exported as metrics by the {@link LoggerProcessor}.
  * </p>
  *
  * @author hoangtien2k3
  */
 @Slf4j
-public class LoggerQueue {
-    private static LoggerQueue mMe = null;
-    private ArrayBlockingQueue<LoggerDTO> myQueue = null;
-    private static final Object myLock = new Object();
+public final class LoggerQueue {
+
+    private static final int DEFAULT_CAPACITY = 65536;
 
-    @Getter
-    private int countFalse = 0;
+    private static volatile LoggerQueue instance = new LoggerQueue(DEFAULT_CAPACITY, OverflowPolicy.DROP);
 
-    @Getter
-    private int countSuccess = 0;
+    private final LoggerDTO[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final OverflowPolicy overflowPolicy;
+    private volatile Consumer<LoggerDTO> overflowHandler;
+    private final LongAdder countSuccess = new LongAdder();
+    private final LongAdder countFalse = new LongAdder();
+    private final LongAdder countCallerRuns = new LongAdder();
+
+    /**
+     * <p>
+     * What to do with an event published while the ring buffer is full.
+     * </p>
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the event and count it as failed.
+         */
+        DROP,
+
+        /**
+         * Write the event on the publishing thread.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * Constructs a new instance of {@code LoggerQueue}.
+     *
+     * @param capacity
+     *            the requested capacity, rounded up to a power of two.
+     * @param overflowPolicy
+     *            the policy applied when the ring buffer is full.
+     */
+    private LoggerQueue(int capacity, OverflowPolicy overflowPolicy) {
+        int size = Integer.highestOneBit(Math.max(2, Math.min(capacity, 1 << 30)) - 1) << 1;
+        this.buffer = new LoggerDTO[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.overflowPolicy = overflowPolicy;
+    }
 
     /**
      * <p>
@@ -72,60 +113,95 @@ public class LoggerQueue {
      * @return a {@link com.reactify.annotations.logging.LoggerQueue} object
      */
     public static LoggerQueue getInstance() {
-        if (mMe == null) {
-            mMe = new LoggerQueue();
-        }
-        return mMe;
+        return instance;
     }
 
     /**
-     * Constructs a new instance of {@code UnmarshallerFactory}.
+     * <p>
+     * Replaces the queue with one of the given capacity and overflow policy.
+     * Meant to be called once, on startup, before events are published; events
+     * still held by the previous queue are discarded.
+     * </p>
+     *
+     * @param capacity
+     *            the requested capacity, rounded up to a power of two.
+     * @param overflowPolicy
+     *            the policy applied when the ring buffer is full.
+     * @param overflowHandler
+     *            writes an event on the publishing thread under
+     *            {@link OverflowPolicy#CALLER_RUNS}.
+     * @return the new {@link LoggerQueue}
      */
-    private LoggerQueue() {
-        myQueue = new ArrayBlockingQueue<>(100000) {};
+    static LoggerQueue configure(int capacity, OverflowPolicy overflowPolicy, Consumer<LoggerDTO> overflowHandler) {
+        LoggerQueue queue = new LoggerQueue(capacity, overflowPolicy);
+        queue.overflowHandler = overflowHandler;
+        instance = queue;
+        return queue;
     }
 
     /**
      * <p>
-     * clearQueue.
+     * Discards every queued event. Must only be called by the consumer.
      * </p>
      */
     public void clearQueue() {
-        myQueue.clear();
+        while (getQueue() != null) {
+            // discard
+        }
     }
 
     /**
      * <p>
-     * getQueue.
+     * Takes the oldest event. Must only be called by the consumer.
      * </p>
      *
-     * @return a {@link com.reactify.model.logging.LoggerDTO} object
+     * @return a {@link com.reactify.model.logging.LoggerDTO} object, or
+     *         {@code null} when the queue is empty
      */
     public LoggerDTO getQueue() {
-        return myQueue.poll();
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.getAcquire(index) != position + 1) {
+            return null;
+        }
+        LoggerDTO task = buffer[index];
+        buffer[index] = null;
+        sequences.setRelease(index, position + buffer.length);
+        head = position + 1;
+        return task;
     }
 
     /**
      * <p>
-     * addQueue.
+     * Publishes an event, applying the {@link OverflowPolicy} when the queue is
+     * full.
      * </p>
      *
      * @param task
      *            a {@link com.reactify.model.logging.LoggerDTO} object
-     * @return a boolean
+     * @return {@code true} if the event was queued or written, {@code false} if
+     *         it was dropped
      */
     public boolean addQueue(LoggerDTO task) {
-        if (myQueue.add(task)) {
-            countSuccess++;
+        if (offer(task)) {
+            countSuccess.increment();
+            return true;
+        }
+        Consumer<LoggerDTO> handler = overflowHandler;
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS && handler != null) {
+            countCallerRuns.increment();
+            handler.accept(task);
             return true;
         }
-        countFalse++;
+        countFalse.increment();
         return false;
     }
 
     /**
      * <p>
-     * addQueue.
+     * addQueue. The call is reduced to a compact event by
+     * {@link LoggerCapture} before it is queued, so the context, arguments and
+     * response are not retained by the queue.
      * </p>
      *
      * @param contextRef
@@ -163,29 +239,62 @@ public class LoggerQueue {
             String actionType,
             Object[] args,
             String title) {
-        try {
-            if (myQueue.add(new LoggerDTO(
-                    contextRef, newSpan, service, startTime, endTime, result, obj, logType, actionType, args, title))) {
-                countSuccess++;
-                return;
+        addQueue(LoggerCapture.capture(
+                contextRef, newSpan, service, startTime, endTime, result, obj, logType, actionType, args, title));
+    }
+
+    private boolean offer(LoggerDTO task) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer[index] = task;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
             }
-        } catch (Exception ignore) {
         }
-        countFalse++;
     }
 
     /**
      * <p>
-     * getRecords.
+     * Takes up to {@code maxRecords} events. Must only be called by the
+     * consumer.
+     * </p>
+     *
+     * @param records
+     *            the list the events are added to
+     * @param maxRecords
+     *            the maximum number of events to take
+     * @return the number of events taken
+     */
+    public int drainTo(List<LoggerDTO> records, int maxRecords) {
+        int count = 0;
+        LoggerDTO task;
+        while (count < maxRecords && (task = getQueue()) != null) {
+            records.add(task);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * <p>
+     * getRecords. Must only be called by the consumer.
      * </p>
      *
      * @return a {@link java.util.List} object
      */
     public List<LoggerDTO> getRecords() {
         List<LoggerDTO> records = new ArrayList<>();
-        if (myQueue != null) {
-            myQueue.drainTo(records, 100000);
-        }
+        drainTo(records, buffer.length);
         return records;
     }
 
@@ -194,19 +303,54 @@ public class LoggerQueue {
      * getQueueSize.
      * </p>
      *
-     * @return a int
+     * @return the approximate number of queued events
      */
     public int getQueueSize() {
-        return myQueue.size();
+        return (int) Math.max(0, tail.get() - head);
     }
 
     /**
      * <p>
-     * resetCount.
+     * Returns the capacity of the ring buffer.
      * </p>
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    /**
+     * <p>
+     * Returns the number of events queued since startup.
+     * </p>
+     *
+     * @return the queued count
+     */
+    public long getCountSuccess() {
+        return countSuccess.sum();
+    }
+
+    /**
+     * <p>
+     * Returns the number of events dropped because the queue was full.
+     * </p>
+     *
+     * @return the dropped count
+     */
+    public long getCountFalse() {
+        return countFalse.sum();
+    }
+
+    /**
+     * <p>
+     * Returns the number of events written by the publishing thread because the
+     * queue was full.
+     * </p>
+     *
+     * @return the caller-written count
      */
-    public void resetCount() {
-        countSuccess = 0;
-        countFalse = 0;
+    public long getCountCallerRuns() {
+        return countCallerRuns.sum();
     }
 }
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.stereotype.Component;
+
+/**
+ * <p>
+ * The {@code LoggerSampler} class decides which advised calls produce a
+ * performance log event, so that the log keeps what matters during an
+ * incident instead of flooding the {@link LoggerQueue} with every call.
+ * </p>
+ *
+ * <p>
+ * A call is decided in two steps:
+ * </p>
+ * <ul>
+ * <li><strong>Head sampling</strong>: when the call starts, it is sampled with
+ * the probability configured for its pointcut ({@code controller},
+ * {@code service}, {@code repository}, {@code client}, or {@code annotated}
+ * for {@link com.reactify.annotations.LogPerformance} methods).</li>
+ * <li><strong>Tail retention</strong>: when the call completes, errors and
+ * calls among the slowest {@code tail.percent} of their method over the
+ * sliding {@code tail.window} are always kept, sampled or not. Other sampled
+ * calls are kept when they last longer than the threshold of their method and
+ * the per-method rate limit lets them through.</li>
+ * </ul>
+ *
+ * <p>
+ * Sampling is opt-in through {@code sampling.enabled}. When it is off, every
+ * call is sampled and every call longer than its threshold is logged, as
+ * before sampling existed.
+ * </p>
+ *
+ * <p>
+ * The rate limit of a method is a token bucket of
+ * {@code rateLimit.permitsPerSecond}, scaled down as the {@link LoggerQueue}
+ * fills up, so producers back off before events have to be dropped.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Component
+public class LoggerSampler {
+
+    /** Pointcut of {@link com.reactify.annotations.LogPerformance} methods. */
+    public static final String ANNOTATED = "annotated";
+
+    private final LoggerProperties.Sampling settings;
+    private final Map<String, MethodStats> methods = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new instance of {@code LoggerSampler}.
+     *
+     * @param properties
+     *            the performance log settings.
+     */
+    public LoggerSampler(LoggerProperties properties) {
+        this.settings = properties.getSampling();
+    }
+
+    /**
+     * <p>
+     * Returns the pointcut a call is sampled under, derived from the package of
+     * the target class.
+     * </p>
+     *
+     * @param targetClass
+     *            the class of the advised bean
+     * @param annotated
+     *            whether the method carries
+     *            {@link com.reactify.annotations.LogPerformance}
+     * @return the pointcut name
+     */
+    public static String pointcut(Class<?> targetClass, boolean annotated) {
+        if (annotated) {
+            return ANNOTATED;
+        }
+        String name = targetClass.getName();
+        for (String pointcut : new String[] {"controller", "service", "repository", "client"}) {
+            if (name.contains("." + pointcut + ".")) {
+                return pointcut;
+            }
+        }
+        return ANNOTATED;
+    }
+
+    /**
+     * <p>
+     * Decides, when a call starts, whether it is head-sampled.
+     * </p>
+     *
+     * @param pointcut
+     *            the pointcut of the call, see {@link #pointcut(Class, boolean)}
+     * @return {@code true} if the call is sampled
+     */
+    public boolean sample(String pointcut) {
+        return sample(rate(pointcut));
+    }
+
+    /**
+     * Returns the head sampling probability of a pointcut.
+     */
+    double rate(String pointcut) {
+        return settings.isEnabled() ? settings.getRates().getOrDefault(pointcut, 1.0) : 1.0;
+    }
+
+    /**
+     * Decides whether a call is head-sampled with the given probability.
+     */
+    static boolean sample(double rate) {
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * <p>
+     * Decides, when a call completes, whether it produces a log event. Every
+     * call is recorded in the sliding window of its method, sampled or not.
+     * </p>
+     *
+     * @param name
+     *            the method name, {@code SimpleClassName.methodName}
+     * @param durationMillis
+     *            the duration of the call
+     * @param error
+     *            whether the call failed
+     * @param sampled
+     *            the head sampling decision of the call
+     * @return {@code true} if the call must be logged
+     */
+    public boolean retain(String name, long durationMillis, boolean error, boolean sampled) {
+        return retain(stats(name), durationMillis, error, sampled);
+    }
+
+    /**
+     * Returns the state of a method, created on first use.
+     */
+    MethodStats stats(String name) {
+        return methods.computeIfAbsent(name, this::newStats);
+    }
+
+    /**
+     * Same as {@link #retain(String, long, boolean, boolean)} for a method whose
+     * state has already been looked up.
+     */
+    boolean retain(MethodStats stats, long durationMillis, boolean error, boolean sampled) {
+        if (!settings.isEnabled()) {
+            return durationMillis > stats.thresholdMillis;
+        }
+        boolean slowTail = stats.tail != null && stats.tail.recordAndCheck(durationMillis);
+        if ((error && settings.isKeepErrors()) || slowTail) {
+            return true;
+        }
+        return sampled && durationMillis > stats.thresholdMillis && stats.tryAcquire();
+    }
+
+    private long threshold(String name) {
+        return settings.getThresholds().getOrDefault(name, settings.getThreshold()).toMillis();
+    }
+
+    private MethodStats newStats(String name) {
+        LoggerProperties.Sampling.Tail tail = settings.getTail();
+        return new MethodStats(
+                threshold(name),
+                settings.getRateLimit(),
+                settings.isEnabled() && tail.getPercent() > 0
+                        ? new SlidingTail(tail.getPercent(), tail.getWindow(), tail.getMinSamples())
+                        : null);
+    }
+
+    /**
+     * <p>
+     * Per-method state: threshold, rate limiter and sliding duration window.
+     * </p>
+     */
+    static final class MethodStats {
+
+        private final long thresholdMillis;
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final SlidingTail tail;
+        private final AtomicLong theoreticalArrival = new AtomicLong();
+
+        private MethodStats(long thresholdMillis, LoggerProperties.Sampling.RateLimit rateLimit, SlidingTail tail) {
+            this.thresholdMillis = thresholdMillis;
+            this.intervalNanos = rateLimit.getPermitsPerSecond() > 0
+                    ? (long) (TimeUnit.SECONDS.toNanos(1) / rateLimit.getPermitsPerSecond())
+                    : 0;
+            this.burstNanos = intervalNanos * Math.max(1, rateLimit.getBurst());
+            this.tail = tail;
+        }
+
+        /**
+         * Returns the minimum duration of a logged successful call.
+         */
+        long getThresholdMillis() {
+            return thresholdMillis;
+        }
+
+        /**
+         * Generic cell rate algorithm: each permit pushes the theoretical
+         * arrival time by one interval, stretched by the queue fill ratio.
+         */
+        private boolean tryAcquire() {
+            if (intervalNanos == 0) {
+                return true;
+            }
+            LoggerQueue queue = LoggerQueue.getInstance();
+            double headroom = 1.0 - (double) queue.getQueueSize() / queue.getCapacity();
+            long interval = (long) (intervalNanos / Math.max(0.05, headroom));
+            long now = System.nanoTime();
+            while (true) {
+                long arrival = theoreticalArrival.get();
+                long next = Math.max(arrival, now) + interval;
+                if (next - now > burstNanos + interval) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(arrival, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Approximate duration distribution of a method over a sliding window,
+     * kept as log-linear histograms of the current and previous half windows.
+     * Buckets have a relative width of at most 25%.
+     * </p>
+     */
+    private static final class SlidingTail {
+
+        private static final int SUB_BUCKET_BITS = 2;
+        private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+        private static final int RECOMPUTE_EVERY = 64;
+
+        private final double percent;
+        private final long halfWindowNanos;
+        private final int minSamples;
+        private final AtomicLongArray[] windows = {new AtomicLongArray(BUCKETS), new AtomicLongArray(BUCKETS)};
+        private final AtomicLong recorded = new AtomicLong();
+        private volatile long windowStart = System.nanoTime();
+        private volatile int current;
+        private volatile int thresholdBucket = Integer.MAX_VALUE;
+
+        private SlidingTail(double percent, Duration window, int minSamples) {
+            this.percent = Math.min(100, percent);
+            this.halfWindowNanos = Math.max(1, window.toNanos() / 2);
+            this.minSamples = minSamples;
+        }
+
+        private boolean recordAndCheck(long durationMillis) {
+            rotate();
+            int bucket = bucket(durationMillis);
+            windows[current].incrementAndGet(bucket);
+            if (recorded.incrementAndGet() % RECOMPUTE_EVERY == 0) {
+                thresholdBucket = computeThreshold();
+            }
+            return bucket >= thresholdBucket;
+        }
+
+        private void rotate() {
+            long start = windowStart;
+            long now = System.nanoTime();
+            if (now - start < halfWindowNanos) {
+                return;
+            }
+            synchronized (this) {
+                if (windowStart != start) {
+                    return;
+                }
+                int next = current ^ 1;
+                AtomicLongArray stale = windows[next];
+                for (int i = 0; i < BUCKETS; i++) {
+                    stale.set(i, 0);
+                }
+                current = next;
+                windowStart = now - start >= 2 * halfWindowNanos ? now : start + halfWindowNanos;
+                if (now - start >= 2 * halfWindowNanos) {
+                    AtomicLongArray previous = windows[next ^ 1];
+                    for (int i = 0; i < BUCKETS; i++) {
+                        previous.set(i, 0);
+                    }
+                }
+            }
+        }
+
+        private int computeThreshold() {
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (AtomicLongArray window : windows) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    counts[i] += window.get(i);
+                }
+            }
+            for (long count : counts) {
+                total += count;
+            }
+            if (total < minSamples) {
+                return Integer.MAX_VALUE;
+            }
+            // lowest bucket such that it and every bucket above hold at most
+            // the tail share, so a flat distribution retains nothing
+            long tail = (long) Math.ceil(total * percent / 100);
+            long seen = 0;
+            for (int i = BUCKETS - 1; i >= 0; i--) {
+                seen += counts[i];
+                if (seen > tail) {
+                    return i + 1;
+                }
+            }
+            return 0;
+        }
+
+        private static int bucket(long durationMillis) {
+            long value = Math.max(0, durationMillis);
+            if (value < (1L << SUB_BUCKET_BITS)) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+            return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | subBucket;
+        }
+    }
+}
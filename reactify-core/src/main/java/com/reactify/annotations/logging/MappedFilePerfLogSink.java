@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import com.reactify.model.logging.LogField;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * The {@code MappedFilePerfLogSink} class writes events to rolling,
+ * memory-mapped segment files in the binary format of
+ * {@link PerfLogSegments}, bypassing the Log4j pipeline. Each record is
+ * encoded straight into the mapped segment, without building a JSON string,
+ * so writing an event costs a few buffer puts; the operating system flushes
+ * the pages to disk in the background.
+ * </p>
+ *
+ * <p>
+ * A segment is mapped at its full {@code segmentSize} when it is opened. When
+ * a record does not fit, the next one is opened and the full segment is forced
+ * to disk outside the lock, so concurrent writers only wait for the switch,
+ * not for the disk; only the newest {@code maxSegments} segments are kept.
+ * Segments are read back with {@link PerfLogExporter}.
+ * </p>
+ *
+ * <p>
+ * Closing forces the current segment and releases it. A record written after
+ * that, for instance by a caller under
+ * {@link LoggerQueue.OverflowPolicy#CALLER_RUNS} during shutdown, opens a new
+ * segment instead of being lost.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+@Slf4j
+public class MappedFilePerfLogSink implements PerfLogSink {
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final CharsetEncoder encoder = PerfLogSegments.newEncoder();
+    private long nextIndex;
+    private MappedByteBuffer segment;
+
+    /**
+     * Constructs a new instance of {@code MappedFilePerfLogSink}.
+     *
+     * @param settings
+     *            the segment directory, size and retention.
+     */
+    public MappedFilePerfLogSink(LoggerProperties.Sink settings) {
+        this.directory = Path.of(settings.getDirectory());
+        this.segmentSize = (int) Math.min(
+                Integer.MAX_VALUE, Math.max(PerfLogSegments.HEADER_SIZE + 1024, settings.getSegmentSize().toBytes()));
+        this.maxSegments = Math.max(1, settings.getMaxSegments());
+        try {
+            Files.createDirectories(directory);
+            List<Path> existing = PerfLogSegments.list(directory);
+            nextIndex = existing.isEmpty() ? 0 : PerfLogSegments.index(existing.get(existing.size() - 1)) + 1;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create perf-log directory " + directory, e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(LogField logField) {
+        MappedByteBuffer full = null;
+        try {
+            synchronized (this) {
+                if (segment == null) {
+                    roll();
+                }
+                if (PerfLogSegments.write(segment, encoder, logField)) {
+                    return;
+                }
+                if (segment.position() == PerfLogSegments.HEADER_SIZE) {
+                    log.warn("Perf-log record of {} is larger than a segment, skip it", logField.service());
+                    return;
+                }
+                full = segment;
+                roll();
+                if (!PerfLogSegments.write(segment, encoder, logField)) {
+                    log.warn("Perf-log record of {} is larger than a segment, skip it", logField.service());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error while write perf-log segment: {}", e.getMessage());
+        } finally {
+            if (full != null) {
+                full.force();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Forces the current segment to disk and releases it. A later write opens
+     * a new segment.
+     * </p>
+     */
+    @Override
+    public void close() {
+        MappedByteBuffer current;
+        synchronized (this) {
+            current = segment;
+            segment = null;
+        }
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    /**
+     * Opens the next segment. The previous one, if any, must be forced by the
+     * caller once the lock is released.
+     */
+    private void roll() throws IOException {
+        segment = null;
+        Path file = PerfLogSegments.segment(directory, nextIndex++);
+        try (FileChannel channel = FileChannel.open(
+                file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        PerfLogSegments.writeHeader(segment);
+        deleteOldSegments();
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments = PerfLogSegments.list(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.reactify.factory.ObjectMapperFactory;
+import com.reactify.model.logging.LogField;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * The {@code PerfLogExporter} class is a small command line tool that reads
+ * the segment files written by {@link MappedFilePerfLogSink} and prints their
+ * records as newline-delimited JSON, one
+ * {@link com.reactify.model.logging.LogField} per line, ready to be shipped
+ * to a log store or filtered with {@code jq}.
+ * </p>
+ *
+ * <pre>
+ * java -cp reactify-core.jar:... com.reactify.annotations.logging.PerfLogExporter \
+ *     [--from epochMillis] [--to epochMillis] &lt;segment file or directory&gt;...
+ * </pre>
+ *
+ * <p>
+ * Directories are expanded to their segments, oldest first. {@code --from}
+ * and {@code --to} keep only the records that started in the given range.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public final class PerfLogExporter {
+
+    private PerfLogExporter() {}
+
+    /**
+     * <p>
+     * Runs the exporter.
+     * </p>
+     *
+     * @param args
+     *            the options and the segment files or directories
+     * @throws IOException
+     *             if a segment cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--from" -> from = Long.parseLong(args[++i]);
+                case "--to" -> to = Long.parseLong(args[++i]);
+                default -> {
+                    Path path = Path.of(args[i]);
+                    files.addAll(Files.isDirectory(path) ? PerfLogSegments.list(path) : List.of(path));
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println(
+                    "Usage: PerfLogExporter [--from epochMillis] [--to epochMillis] <segment file or directory>...");
+            System.exit(2);
+        }
+        export(files, from, to, new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * <p>
+     * Writes the records of the given segments that started between
+     * {@code from} and {@code to}, inclusive, as newline-delimited JSON.
+     * </p>
+     *
+     * @param files
+     *            the segment files, in the order to export them
+     * @param from
+     *            the earliest start time, in epoch milliseconds
+     * @param to
+     *            the latest start time, in epoch milliseconds
+     * @param output
+     *            the destination, flushed but not closed
+     * @return the number of exported records
+     * @throws IOException
+     *             if a segment cannot be read or the output cannot be written
+     */
+    public static long export(List<Path> files, long from, long to, Writer output) throws IOException {
+        ObjectWriter writer = ObjectMapperFactory.getInstance().writerFor(LogField.class);
+        BufferedWriter out = new BufferedWriter(output, 64 * 1024);
+        long[] exported = {0};
+        try {
+            for (Path file : files) {
+                PerfLogSegments.read(file, logField -> {
+                    long start = logField.startTime() == null ? 0 : logField.startTime();
+                    if (start < from || start > to) {
+                        return;
+                    }
+                    try {
+                        out.write(writer.writeValueAsString(logField));
+                        out.newLine();
+                        exported[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        return exported[0];
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import com.reactify.model.logging.LogField;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * The {@code PerfLogSegments} class defines the file format written by
+ * {@link MappedFilePerfLogSink} and read back by {@link PerfLogExporter}.
+ * </p>
+ *
+ * <p>
+ * A segment file starts with a magic number and a format version, followed by
+ * length-prefixed records. The length of a record is written after its body,
+ * so a reader following a live segment never sees a partial record, and a
+ * zero length marks the end of the data. A record holds the start time, end
+ * time and duration as longs, followed by the string fields of
+ * {@link com.reactify.model.logging.LogField}, each as its UTF-8 byte length,
+ * {@code -1} for {@code null}, and its bytes.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+final class PerfLogSegments {
+
+    /** Magic number of a segment file, {@code "RPLG"}. */
+    static final int MAGIC = 0x52504C47;
+
+    /** Version of the record format. */
+    static final int FORMAT_VERSION = 1;
+
+    /** Size of the segment header. */
+    static final int HEADER_SIZE = 8;
+
+    private static final String PREFIX = "perf-";
+    private static final String SUFFIX = ".seg";
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private PerfLogSegments() {}
+
+    /**
+     * <p>
+     * Returns the file of the segment with the given index.
+     * </p>
+     *
+     * @param directory
+     *            the segment directory
+     * @param index
+     *            the segment index
+     * @return the segment file
+     */
+    static Path segment(Path directory, long index) {
+        return directory.resolve(String.format("%s%019d%s", PREFIX, index, SUFFIX));
+    }
+
+    /**
+     * <p>
+     * Lists the segment files of a directory, oldest first.
+     * </p>
+     *
+     * @param directory
+     *            the segment directory
+     * @return the segment files
+     * @throws IOException
+     *             if the directory cannot be listed
+     */
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files.filter(PerfLogSegments::isSegment)
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    /**
+     * <p>
+     * Returns the index of a segment file.
+     * </p>
+     *
+     * @param file
+     *            the segment file
+     * @return the index
+     */
+    static long index(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(PREFIX)
+                && name.endsWith(SUFFIX)
+                && name.length() > PREFIX.length() + SUFFIX.length()
+                && name.substring(PREFIX.length(), name.length() - SUFFIX.length())
+                        .chars()
+                        .allMatch(Character::isDigit);
+    }
+
+    /**
+     * <p>
+     * Writes the header of a new segment.
+     * </p>
+     *
+     * @param buffer
+     *            the mapped segment, positioned at its start
+     */
+    static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+    }
+
+    /**
+     * <p>
+     * Appends a record at the position of {@code buffer}, keeping four bytes
+     * free after it for the end marker.
+     * </p>
+     *
+     * @param buffer
+     *            the mapped segment
+     * @param encoder
+     *            the UTF-8 encoder of the writing thread
+     * @param logField
+     *            the event to write
+     * @return {@code true} if the record was written, {@code false} if it does
+     *         not fit, in which case nothing is visible to readers
+     */
+    static boolean write(ByteBuffer buffer, CharsetEncoder encoder, LogField logField) {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        buffer.limit(buffer.capacity() - Integer.BYTES);
+        try {
+            if (buffer.remaining() < Integer.BYTES + 3 * Long.BYTES) {
+                return false;
+            }
+            buffer.position(start + Integer.BYTES);
+            buffer.putLong(orNull(logField.startTime()));
+            buffer.putLong(orNull(logField.endTime()));
+            buffer.putLong(orNull(logField.duration()));
+            boolean written = putString(buffer, encoder, logField.traceId())
+                    && putString(buffer, encoder, logField.requestId())
+                    && putString(buffer, encoder, logField.service())
+                    && putString(buffer, encoder, logField.logType())
+                    && putString(buffer, encoder, logField.actionType())
+                    && putString(buffer, encoder, logField.clientAddress())
+                    && putString(buffer, encoder, logField.title())
+                    && putString(buffer, encoder, logField.inputs())
+                    && putString(buffer, encoder, logField.response())
+                    && putString(buffer, encoder, logField.result());
+            if (!written) {
+                buffer.position(start);
+                return false;
+            }
+            // publish the record only once its body is complete
+            buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+            return true;
+        } finally {
+            buffer.limit(limit);
+        }
+    }
+
+    private static long orNull(Long value) {
+        return value == null ? NULL_LONG : value;
+    }
+
+    private static boolean putString(ByteBuffer buffer, CharsetEncoder encoder, String value) {
+        if (buffer.remaining() < Integer.BYTES) {
+            return false;
+        }
+        int lengthPosition = buffer.position();
+        buffer.position(lengthPosition + Integer.BYTES);
+        if (value == null) {
+            buffer.putInt(lengthPosition, -1);
+            return true;
+        }
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(value), buffer, true);
+        if (result.isOverflow() || encoder.flush(buffer).isOverflow()) {
+            return false;
+        }
+        buffer.putInt(lengthPosition, buffer.position() - lengthPosition - Integer.BYTES);
+        return true;
+    }
+
+    /**
+     * <p>
+     * Creates the UTF-8 encoder used to write records, replacing malformed
+     * characters instead of failing.
+     * </p>
+     *
+     * @return a new encoder
+     */
+    static CharsetEncoder newEncoder() {
+        return StandardCharsets.UTF_8
+                .newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * <p>
+     * Reads every complete record of a segment file.
+     * </p>
+     *
+     * @param file
+     *            the segment file
+     * @param consumer
+     *            receives the records in write order
+     * @return the number of records read
+     * @throws IOException
+     *             if the file cannot be read or is not a segment
+     */
+    static int read(Path file, Consumer<LogField> consumer) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+        }
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException(file + " is not a perf-log segment");
+        }
+        int version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException(file + " has unsupported format version " + version);
+        }
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        int count = 0;
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+            ByteBuffer record = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            consumer.accept(readRecord(record, decoder));
+            count++;
+        }
+        return count;
+    }
+
+    private static LogField readRecord(ByteBuffer record, CharsetDecoder decoder) throws IOException {
+        Long startTime = getLong(record);
+        Long endTime = getLong(record);
+        Long duration = getLong(record);
+        String traceId = getString(record, decoder);
+        String requestId = getString(record, decoder);
+        String service = getString(record, decoder);
+        String logType = getString(record, decoder);
+        String actionType = getString(record, decoder);
+        String clientAddress = getString(record, decoder);
+        String title = getString(record, decoder);
+        String inputs = getString(record, decoder);
+        String response = getString(record, decoder);
+        String result = getString(record, decoder);
+        return new LogField(
+                traceId,
+                requestId,
+                service,
+                duration,
+                logType,
+                actionType,
+                startTime,
+                endTime,
+                clientAddress,
+                title,
+                inputs,
+                response,
+                result);
+    }
+
+    private static Long getLong(ByteBuffer record) {
+        long value = record.getLong();
+        return value == NULL_LONG ? null : value;
+    }
+
+    private static String getString(ByteBuffer record, CharsetDecoder decoder) throws IOException {
+        int length = record.getInt();
+        if (length < 0) {
+            return null;
+        }
+        ByteBuffer bytes = record.slice(record.position(), length);
+        record.position(record.position() + length);
+        return decoder.decode(bytes).toString();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import com.reactify.model.logging.LogField;
+
+/**
+ * <p>
+ * The {@code PerfLogSink} interface is the destination of the performance log
+ * events written by the {@link LoggerProcessor}. The sink is selected by
+ * {@code application.perf-logging.sink.type}; an application may also define
+ * its own {@code PerfLogSink} bean, which then takes precedence.
+ * </p>
+ *
+ * <p>
+ * Events are written by the processor thread and, when the queue overflows
+ * under the {@code CALLER_RUNS} policy, by the publishing threads, so
+ * implementations must be thread-safe.
+ * </p>
+ *
+ * @author hoangtien2k3
+ */
+public interface PerfLogSink extends AutoCloseable {
+
+    /**
+     * <p>
+     * Writes one event.
+     * </p>
+     *
+     * @param logField
+     *            the event to write
+     */
+    void write(LogField logField);
+
+    /**
+     * <p>
+     * Flushes and releases the resources of the sink once the processor
+     * drained the queue. Callers may still write afterwards under the
+     * {@code CALLER_RUNS} policy, so a sink must accept writes after it was
+     * closed. Does nothing by default.
+     * </p>
+     */
+    @Override
+    default void close() {}
+}
@@ -15,46 +15,58 @@
  */
 package com.reactify.model.logging;
 
-import brave.Span;
-import java.util.concurrent.atomic.AtomicReference;
-import reactor.util.context.Context;
+import java.util.List;
 
 /**
- * Record representing log information within the system.
+ * Record representing a performance log event waiting to be written.
  *
- * @param contextRef
- *            A reference to the current context.
- * @param newSpan
- *            A new Span object to track the operation.
+ * <p>
+ * The event only holds the values extracted when the call completed: it does
+ * not keep the Reactor context, the exchange or the span. The arguments and
+ * the response are kept by reference and serialized by the consumer thread,
+ * so the request thread does not pay for the JSON; they stay reachable until
+ * the event is written, which the bounded queue caps.
+ * </p>
+ *
+ * @param traceId
+ *            The trace id of the span of the call, or an empty string.
+ * @param requestId
+ *            The {@code Request-Id} header of the request, may be
+ *            {@code null}.
+ * @param clientAddress
+ *            The address of the client making the request, may be
+ *            {@code null}.
  * @param service
  *            The name of the service processing the request.
  * @param startTime
- *            The timestamp (in milliseconds) when logging started.
+ *            The timestamp (in milliseconds) when the call started.
  * @param endTime
- *            The timestamp (in milliseconds) when logging ended.
+ *            The timestamp (in milliseconds) when the call completed.
  * @param result
  *            The result of the operation (e.g., SUCCESS, FAILURE).
- * @param response
- *            The response object from the service.
  * @param logType
  *            The type of log (e.g., INFO, ERROR).
  * @param actionType
  *            The type of action being performed (e.g., CREATE, UPDATE, DELETE).
- * @param args
- *            The arguments passed into the action.
  * @param title
  *            A brief title or description of the log.
+ * @param inputs
+ *            The arguments of the call, without the {@code Mono} and
+ *            exchange arguments, may be {@code null}.
+ * @param response
+ *            The response of the call, may be {@code null}.
  * @author hoangtien2k3
  */
 public record LoggerDTO(
-        AtomicReference<Context> contextRef,
-        Span newSpan,
+        String traceId,
+        String requestId,
+        String clientAddress,
         String service,
-        Long startTime,
-        Long endTime,
+        long startTime,
+        long endTime,
         String result,
-        Object response,
         String logType,
         String actionType,
-        Object[] args,
-        String title) {}
+        String title,
+        List<Object> inputs,
+        Object response) {}
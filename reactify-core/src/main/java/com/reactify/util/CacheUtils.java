@@ -15,10 +15,11 @@
  */
 package com.reactify.util;
 
-import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.validation.constraints.NotNull;
 import java.time.Duration;
 import java.util.function.Function;
@@ -37,6 +38,9 @@ public class CacheUtils {
 
     private static final String FIXED_KEY = "FIXED_KEY";
 
+    /** Constant <code>DEFAULT_MAXIMUM_SIZE=10_000</code> */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
     private CacheUtils() {}
 
     /**
@@ -82,6 +86,12 @@ public class CacheUtils {
      * ofMono.
      * </p>
      *
+     * <p>
+     * Every loaded value is kept for {@code duration}, and at most
+     * {@link #DEFAULT_MAXIMUM_SIZE} keys are held. Failed or empty loads are
+     * not cached. See {@link MonoCache}.
+     * </p>
+     *
      * @param duration
      *            a {@link java.time.Duration} object
      * @param fn
@@ -91,9 +101,42 @@ public class CacheUtils {
      * @return a {@link java.util.function.Function} object
      */
     public static <T> Function<String, Mono<T>> ofMono(Duration duration, Function<String, Mono<T>> fn) {
-        AsyncCache<String, T> cache =
-                Caffeine.newBuilder().expireAfterWrite(duration).buildAsync();
-        return key -> Mono.fromFuture(cache.get(key, k -> (T) fn.apply(k).toFuture()));
+        return ofMono(value -> duration, DEFAULT_MAXIMUM_SIZE, null, fn);
+    }
+
+    /**
+     * <p>
+     * ofMono.
+     * </p>
+     *
+     * <p>
+     * Memoizes {@code fn} with a TTL computed from each loaded value, bounded to
+     * {@code maximumSize} keys. The loader runs with the Reactor context of the
+     * caller that triggered the load, and failed, empty or cancelled loads are
+     * dropped immediately. When {@code cacheName} is not {@code null} the cache
+     * statistics are bound to
+     * {@link io.micrometer.core.instrument.Metrics#globalRegistry}.
+     * </p>
+     *
+     * @param ttl
+     *            a {@link java.util.function.Function} computing how long a
+     *            value is kept; a zero or negative duration skips caching
+     * @param maximumSize
+     *            a long
+     * @param cacheName
+     *            a {@link java.lang.String} object, may be {@code null}
+     * @param fn
+     *            a {@link java.util.function.Function} object
+     * @param <T>
+     *            a T class
+     * @return a {@link com.reactify.util.MonoCache} object
+     */
+    public static <T> MonoCache<T> ofMono(
+            @NotNull Function<? super T, Duration> ttl,
+            @NonNegative long maximumSize,
+            String cacheName,
+            @NotNull Function<String, Mono<T>> fn) {
+        return new MonoCache<>(ttl, maximumSize, cacheName, fn);
     }
 
     /**
@@ -114,12 +157,18 @@ public class CacheUtils {
         return Mono.defer(() -> monoFn.apply(FIXED_KEY));
     }
 
-    // TODO : close cache metrics to build test local
     /**
      * <p>
      * caffeine.
      * </p>
      *
+     * <p>
+     * The cache records statistics and is bound to
+     * {@link io.micrometer.core.instrument.Metrics#globalRegistry} under
+     * {@code cacheName}, tagged with the owning {@code cacheClass}, so it is
+     * published by the application's meter registries.
+     * </p>
+     *
      * @param duration
      *            a {@link java.time.Duration} object
      * @param maximumSize
@@ -139,10 +188,12 @@ public class CacheUtils {
             @NonNegative long maximumSize,
             @NotNull Class<?> cacheClass,
             @NonNull String cacheName) {
-        return Caffeine.newBuilder()
+        Cache<K, V> cache = Caffeine.newBuilder()
                 .expireAfterWrite(duration)
                 .recordStats()
                 .maximumSize(maximumSize)
                 .build();
+        return CaffeineCacheMetrics.monitor(
+                Metrics.globalRegistry, cache, cacheName, "class", cacheClass.getName());
     }
 }
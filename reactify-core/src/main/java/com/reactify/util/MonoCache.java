@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Function;
+import org.checkerframework.checker.index.qual.NonNegative;
+import reactor.core.publisher.Mono;
+
+/**
+ * <p>
+ * Reactor-native memoizer behind {@link CacheUtils#ofMono}.
+ * </p>
+ *
+ * <p>
+ * Each key maps to one shared, in-flight {@link Mono}, so concurrent callers
+ * trigger a single load. The load is subscribed from the first caller's
+ * subscription instead of through {@code toFuture()}, so the Reactor context
+ * of that caller (trace id, msisdn, ...) reaches the loader.
+ * </p>
+ *
+ * <p>
+ * A loaded value is kept for the duration computed from the value itself by
+ * the TTL function; a zero or negative duration means the value is not
+ * cached. Errors, empty results and cancelled loads are removed as soon as
+ * they happen, so the next call loads again. The cache is bounded by
+ * {@code maximumSize} and, when named, publishes its statistics to
+ * {@link io.micrometer.core.instrument.Metrics#globalRegistry}.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the cached value
+ * @author hoangtien2k3
+ */
+public final class MonoCache<T> implements Function<String, Mono<T>> {
+
+    private final Cache<String, Slot<T>> cache;
+    private final Function<String, Mono<T>> loader;
+    private final Function<? super T, Duration> ttl;
+
+    /**
+     * <p>
+     * Creates a memoizer around {@code loader}.
+     * </p>
+     *
+     * @param ttl
+     *            computes how long a loaded value is kept
+     * @param maximumSize
+     *            the maximum number of keys kept
+     * @param cacheName
+     *            name the statistics are published under, or {@code null} to
+     *            skip metrics
+     * @param loader
+     *            loads the value of a key
+     */
+    MonoCache(
+            Function<? super T, Duration> ttl,
+            @NonNegative long maximumSize,
+            String cacheName,
+            Function<String, Mono<T>> loader) {
+        this.ttl = ttl;
+        this.loader = loader;
+        Cache<String, Slot<T>> built = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new SlotExpiry<T>())
+                .recordStats()
+                .build();
+        this.cache = cacheName == null
+                ? built
+                : CaffeineCacheMetrics.monitor(
+                        Metrics.globalRegistry, built, cacheName, "class", MonoCache.class.getName());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Mono<T> apply(String key) {
+        return Mono.defer(() -> cache.get(key, this::newSlot).mono);
+    }
+
+    /**
+     * <p>
+     * Removes the value of {@code key}, so the next call loads it again.
+     * </p>
+     *
+     * @param key
+     *            the key to remove
+     */
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * <p>
+     * Removes every value.
+     * </p>
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * <p>
+     * Returns the approximate number of keys currently held, including loads
+     * that are still in flight.
+     * </p>
+     *
+     * @return the estimated size
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private Slot<T> newSlot(String key) {
+        Slot<T> slot = new Slot<>();
+        slot.mono = loader.apply(key)
+                .doOnNext(value -> loaded(key, slot, value))
+                .doFinally(signal -> {
+                    if (!slot.loaded) {
+                        cache.asMap().remove(key, slot);
+                    }
+                })
+                .cache();
+        return slot;
+    }
+
+    private void loaded(String key, Slot<T> slot, T value) {
+        slot.loaded = true;
+        Duration keep = ttl.apply(value);
+        if (keep == null || keep.isNegative() || keep.isZero()) {
+            cache.asMap().remove(key, slot);
+            return;
+        }
+        slot.expiresAfterNanos = saturatedNanos(keep);
+        // re-put the same slot so the expiry is recomputed from its new TTL
+        cache.asMap().replace(key, slot, slot);
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static final class Slot<T> {
+
+        static final long IN_FLIGHT = Long.MAX_VALUE;
+
+        Mono<T> mono;
+        volatile boolean loaded;
+        volatile long expiresAfterNanos = IN_FLIGHT;
+    }
+
+    private static final class SlotExpiry<T> implements Expiry<String, Slot<T>> {
+
+        @Override
+        public long expireAfterCreate(String key, Slot<T> slot, long currentTime) {
+            return slot.expiresAfterNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Slot<T> slot, long currentTime, @NonNegative long currentDuration) {
+            return slot.expiresAfterNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Slot<T> slot, long currentTime, @NonNegative long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
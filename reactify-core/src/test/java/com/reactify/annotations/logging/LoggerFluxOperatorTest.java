@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.test.StepVerifier;
+
+class LoggerFluxOperatorTest {
+
+    private final List<LoggerFluxOperator.MeteredSubscriber<?>> terminated = new CopyOnWriteArrayList<>();
+
+    @Test
+    void completionReportsElementsAndDuration() {
+        StepVerifier.create(metered(Flux.range(1, 3))).expectNext(1, 2, 3).verifyComplete();
+
+        assertThat(terminated).singleElement().satisfies(subscription -> {
+            assertThat(subscription.getSignal()).isEqualTo(SignalType.ON_COMPLETE);
+            assertThat(subscription.getElements()).isEqualTo(3);
+            assertThat(subscription.getError()).isNull();
+            assertThat(subscription.getFirstElementNanos()).isBetween(0L, subscription.getDurationNanos());
+            assertThat(subscription.getStartMillis()).isLessThanOrEqualTo(System.currentTimeMillis());
+        });
+    }
+
+    @Test
+    void firstElementTimeIsMeasuredFromSubscription() {
+        Flux<String> source = Flux.just("a", "b").delayElements(Duration.ofMillis(50));
+
+        StepVerifier.create(metered(source)).expectNext("a", "b").verifyComplete();
+
+        await().atMost(Duration.ofSeconds(1)).until(() -> !terminated.isEmpty());
+        LoggerFluxOperator.MeteredSubscriber<?> subscription = terminated.get(0);
+        assertThat(subscription.getFirstElementNanos()).isGreaterThanOrEqualTo(Duration.ofMillis(50).toNanos());
+        assertThat(subscription.getDurationNanos()).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    void errorIsReportedWithTheElementsBeforeIt() {
+        IllegalStateException failure = new IllegalStateException("broken stream");
+
+        StepVerifier.create(metered(Flux.concat(Flux.just(1), Flux.error(failure))))
+                .expectNext(1)
+                .verifyErrorMatches(failure::equals);
+
+        assertThat(terminated).singleElement().satisfies(subscription -> {
+            assertThat(subscription.getSignal()).isEqualTo(SignalType.ON_ERROR);
+            assertThat(subscription.getElements()).isEqualTo(1);
+            assertThat(subscription.getError()).isSameAs(failure);
+        });
+    }
+
+    @Test
+    void cancellationIsReportedOnce() {
+        StepVerifier.create(metered(Flux.range(1, 10)).take(2)).expectNext(1, 2).verifyComplete();
+
+        assertThat(terminated).singleElement().satisfies(subscription -> {
+            assertThat(subscription.getSignal()).isEqualTo(SignalType.CANCEL);
+            assertThat(subscription.getElements()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void emptyStreamHasNoFirstElement() {
+        StepVerifier.create(metered(Flux.empty())).verifyComplete();
+
+        assertThat(terminated).singleElement().satisfies(subscription -> {
+            assertThat(subscription.getElements()).isZero();
+            assertThat(subscription.getFirstElementNanos()).isZero();
+        });
+    }
+
+    @Test
+    void failingListenerDoesNotBreakTheStream() {
+        Flux<Integer> source = new LoggerFluxOperator<>(Flux.range(1, 2), subscription -> {
+            throw new IllegalStateException("listener failed");
+        });
+
+        StepVerifier.create(source).expectNext(1, 2).verifyComplete();
+    }
+
+    private <T> Flux<T> metered(Flux<T> source) {
+        return new LoggerFluxOperator<>(source, terminated::add);
+    }
+}
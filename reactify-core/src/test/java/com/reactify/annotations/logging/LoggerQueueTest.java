@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.reactify.model.logging.LoggerDTO;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class LoggerQueueTest {
+
+    @AfterEach
+    void restoreDefaultQueue() {
+        LoggerQueue.configure(65536, LoggerQueue.OverflowPolicy.DROP, null);
+    }
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertThat(LoggerQueue.configure(100, LoggerQueue.OverflowPolicy.DROP, null).getCapacity()).isEqualTo(128);
+        assertThat(LoggerQueue.configure(64, LoggerQueue.OverflowPolicy.DROP, null).getCapacity()).isEqualTo(64);
+    }
+
+    @Test
+    void eventsAreDrainedInPublishOrder() {
+        LoggerQueue queue = LoggerQueue.configure(8, LoggerQueue.OverflowPolicy.DROP, null);
+        for (int i = 0; i < 5; i++) {
+            assertThat(queue.addQueue(event("event-" + i))).isTrue();
+        }
+        assertThat(queue.getQueueSize()).isEqualTo(5);
+
+        List<LoggerDTO> records = new ArrayList<>();
+        assertThat(queue.drainTo(records, 3)).isEqualTo(3);
+        assertThat(records).extracting(LoggerDTO::title).containsExactly("event-0", "event-1", "event-2");
+        assertThat(queue.getRecords()).extracting(LoggerDTO::title).containsExactly("event-3", "event-4");
+        assertThat(queue.getQueue()).isNull();
+        assertThat(queue.getQueueSize()).isZero();
+    }
+
+    @Test
+    void slotsAreReusedAfterWrapAround() {
+        LoggerQueue queue = LoggerQueue.configure(4, LoggerQueue.OverflowPolicy.DROP, null);
+        for (int i = 0; i < 10; i++) {
+            assertThat(queue.addQueue(event("event-" + i))).isTrue();
+            assertThat(queue.getQueue().title()).isEqualTo("event-" + i);
+        }
+        assertThat(queue.getCountSuccess()).isEqualTo(10);
+    }
+
+    @Test
+    void fullQueueDropsEvents() {
+        LoggerQueue queue = LoggerQueue.configure(4, LoggerQueue.OverflowPolicy.DROP, null);
+        for (int i = 0; i < 4; i++) {
+            queue.addQueue(event("event-" + i));
+        }
+
+        assertThat(queue.addQueue(event("overflow"))).isFalse();
+        assertThat(queue.getCountSuccess()).isEqualTo(4);
+        assertThat(queue.getCountFalse()).isEqualTo(1);
+        assertThat(queue.getRecords()).extracting(LoggerDTO::title).doesNotContain("overflow");
+    }
+
+    @Test
+    void fullQueueWritesOnCallerUnderCallerRuns() {
+        List<LoggerDTO> written = new ArrayList<>();
+        LoggerQueue queue = LoggerQueue.configure(2, LoggerQueue.OverflowPolicy.CALLER_RUNS, written::add);
+        queue.addQueue(event("event-0"));
+        queue.addQueue(event("event-1"));
+
+        assertThat(queue.addQueue(event("overflow"))).isTrue();
+        assertThat(written).extracting(LoggerDTO::title).containsExactly("overflow");
+        assertThat(queue.getCountCallerRuns()).isEqualTo(1);
+        assertThat(queue.getCountFalse()).isZero();
+        assertThat(queue.getQueueSize()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentProducersLoseNoEvents() throws Exception {
+        int producers = 4;
+        int perProducer = 10_000;
+        LoggerQueue queue = LoggerQueue.configure(1024, LoggerQueue.OverflowPolicy.DROP, null);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                String prefix = "producer-" + p + "-";
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!queue.addQueue(event(prefix + i))) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+
+            Set<String> consumed = new HashSet<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            List<LoggerDTO> batch = new ArrayList<>();
+            while (consumed.size() < producers * perProducer && System.nanoTime() < deadline) {
+                batch.clear();
+                queue.drainTo(batch, 256);
+                batch.forEach(record -> assertThat(consumed.add(record.title())).isTrue());
+            }
+
+            assertThat(consumed).hasSize(producers * perProducer);
+            assertThat(queue.getCountSuccess()).isEqualTo((long) producers * perProducer);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static LoggerDTO event(String title) {
+        return new LoggerDTO(null, null, null, "service", 0L, 1L, "0", "endTime", "action", title, null, null);
+    }
+}
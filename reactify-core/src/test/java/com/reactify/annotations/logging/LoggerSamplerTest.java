@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.reactify.client.BaseRestClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LoggerSamplerTest {
+
+    @Test
+    void disabledSamplingKeepsCallsOverTheThreshold() {
+        LoggerProperties properties = new LoggerProperties();
+        properties.getSampling().setRates(Map.of("service", 0.0));
+        LoggerSampler sampler = new LoggerSampler(properties);
+
+        assertThat(sampler.rate("service")).isEqualTo(1.0);
+        assertThat(sampler.sample("service")).isTrue();
+        assertThat(sampler.retain("Service.find", 50, false, true)).isFalse();
+        assertThat(sampler.retain("Service.find", 51, false, true)).isTrue();
+        assertThat(sampler.retain("Service.find", 10, true, true)).isFalse();
+    }
+
+    @Test
+    void perMethodThresholdOverridesTheDefault() {
+        LoggerProperties properties = new LoggerProperties();
+        properties.getSampling().setThresholds(Map.of("Service.slow", Duration.ofMillis(500)));
+        LoggerSampler sampler = new LoggerSampler(properties);
+
+        assertThat(sampler.stats("Service.slow").getThresholdMillis()).isEqualTo(500);
+        assertThat(sampler.stats("Service.fast").getThresholdMillis()).isEqualTo(50);
+        assertThat(sampler.retain("Service.slow", 400, false, true)).isFalse();
+    }
+
+    @Test
+    void pointcutRatesApplyWhenEnabled() {
+        LoggerProperties properties = enabled();
+        properties.getSampling().setRates(Map.of("client", 0.0));
+        LoggerSampler sampler = new LoggerSampler(properties);
+
+        assertThat(LoggerSampler.pointcut(BaseRestClient.class, false)).isEqualTo("client");
+        assertThat(LoggerSampler.pointcut(BaseRestClient.class, true)).isEqualTo(LoggerSampler.ANNOTATED);
+        assertThat(sampler.rate("client")).isZero();
+        assertThat(sampler.rate(LoggerSampler.ANNOTATED)).isEqualTo(1.0);
+        assertThat(IntStream.range(0, 100).noneMatch(i -> sampler.sample("client"))).isTrue();
+    }
+
+    @Test
+    void errorsAreKeptRegardlessOfSampling() {
+        LoggerProperties properties = enabled();
+        LoggerSampler sampler = new LoggerSampler(properties);
+        assertThat(sampler.retain("Service.find", 1, true, false)).isTrue();
+
+        properties.getSampling().setKeepErrors(false);
+        assertThat(new LoggerSampler(properties).retain("Service.find", 1, true, false)).isFalse();
+    }
+
+    @Test
+    void unsampledAndFastCallsAreDropped() {
+        LoggerSampler sampler = new LoggerSampler(enabled());
+
+        assertThat(sampler.retain("Service.find", 100, false, false)).isFalse();
+        assertThat(sampler.retain("Service.find", 50, false, true)).isFalse();
+        assertThat(sampler.retain("Service.find", 100, false, true)).isTrue();
+    }
+
+    @Test
+    void rateLimitAllowsTheBurstPerMethod() {
+        LoggerProperties properties = enabled();
+        properties.getSampling().getRateLimit().setPermitsPerSecond(1);
+        properties.getSampling().getRateLimit().setBurst(2);
+        LoggerSampler sampler = new LoggerSampler(properties);
+
+        long retained = IntStream.range(0, 10)
+                .filter(i -> sampler.retain("Service.find", 100, false, true))
+                .count();
+
+        assertThat(retained).isEqualTo(3);
+        assertThat(sampler.retain("Service.other", 100, false, true)).isTrue();
+    }
+
+    @Test
+    void slowTailIsKeptEvenWhenNotSampled() {
+        LoggerProperties properties = enabled();
+        properties.getSampling().getTail().setPercent(5);
+        properties.getSampling().getTail().setMinSamples(50);
+        LoggerSampler sampler = new LoggerSampler(properties);
+        LoggerSampler.MethodStats stats = sampler.stats("Service.find");
+
+        for (int i = 0; i < 128; i++) {
+            sampler.retain(stats, i % 40, false, false);
+        }
+
+        assertThat(sampler.retain(stats, 5_000, false, false)).isTrue();
+        assertThat(sampler.retain(stats, 5, false, false)).isFalse();
+    }
+
+    private static LoggerProperties enabled() {
+        LoggerProperties properties = new LoggerProperties();
+        properties.getSampling().setEnabled(true);
+        properties.getSampling().getTail().setPercent(0);
+        return properties;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 the original author Hoàng Anh Tiến.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.reactify.annotations.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.reactify.model.logging.LogField;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class MappedFilePerfLogSinkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsAreReadBackInWriteOrder() throws IOException {
+        try (MappedFilePerfLogSink sink = new MappedFilePerfLogSink(settings(16))) {
+            sink.write(field("first", 1_000L));
+            sink.write(field("second", 2_000L));
+        }
+
+        List<LogField> records = readAll();
+        assertThat(records).extracting(LogField::title).containsExactly("first", "second");
+        assertThat(records.get(0)).isEqualTo(field("first", 1_000L));
+    }
+
+    @Test
+    void fullSegmentsRollAndOldOnesAreDeleted() throws IOException {
+        try (MappedFilePerfLogSink sink = new MappedFilePerfLogSink(settings(3))) {
+            for (int i = 0; i < 100; i++) {
+                sink.write(field("record-" + i, i));
+            }
+        }
+
+        List<Path> segments = PerfLogSegments.list(directory);
+        assertThat(segments).hasSize(3);
+        assertThat(PerfLogSegments.index(segments.get(0))).isGreaterThan(0);
+        List<LogField> records = readAll();
+        assertThat(records).isNotEmpty().last().extracting(LogField::title).isEqualTo("record-99");
+        assertThat(records).extracting(LogField::startTime).isSorted();
+    }
+
+    @Test
+    void writesAfterCloseOpenNewSegment() throws IOException {
+        MappedFilePerfLogSink sink = new MappedFilePerfLogSink(settings(16));
+        sink.write(field("before", 1L));
+        sink.close();
+        sink.write(field("after", 2L));
+        sink.close();
+
+        assertThat(PerfLogSegments.list(directory)).hasSize(2);
+        assertThat(readAll()).extracting(LogField::title).containsExactly("before", "after");
+    }
+
+    @Test
+    void restartContinuesAfterExistingSegments() throws IOException {
+        try (MappedFilePerfLogSink sink = new MappedFilePerfLogSink(settings(16))) {
+            sink.write(field("first run", 1L));
+        }
+        try (MappedFilePerfLogSink sink = new MappedFilePerfLogSink(settings(16))) {
+            sink.write(field("second run", 2L));
+        }
+
+        assertThat(PerfLogSegments.list(directory)).extracting(PerfLogSegments::index).containsExactly(0L, 1L);
+        assertThat(readAll()).extracting(LogField::title).containsExactly("first run", "second run");
+    }
+
+    @Test
+    void recordsLargerThanSegmentAreSkipped() throws IOException {
+        try (MappedFilePerfLogSink sink = new MappedFilePerfLogSink(settings(16))) {
+            sink.write(field("x".repeat(4096), 1L));
+            sink.write(field("small", 2L));
+        }
+
+        assertThat(readAll()).extracting(LogField::title).containsExactly("small");
+    }
+
+    @Test
+    void exporterWritesRecordsInTimeRangeAsJsonLines() throws IOException {
+        try (MappedFilePerfLogSink sink = new MappedFilePerfLogSink(settings(16))) {
+            sink.write(field("early", 1_000L));
+            sink.write(field("inside", 2_000L));
+            sink.write(field("late", 3_000L));
+        }
+        StringWriter output = new StringWriter();
+
+        long exported = PerfLogExporter.export(PerfLogSegments.list(directory), 1_500L, 2_500L, output);
+
+        assertThat(exported).isEqualTo(1);
+        assertThat(output.toString().lines()).singleElement().asString().contains("\"title\":\"inside\"");
+    }
+
+    private LoggerProperties.Sink settings(int maxSegments) {
+        LoggerProperties.Sink settings = new LoggerProperties.Sink();
+        settings.setType(LoggerProperties.Sink.Type.MAPPED_FILE);
+        settings.setDirectory(directory.toString());
+        settings.setSegmentSize(DataSize.ofBytes(1));
+        settings.setMaxSegments(maxSegments);
+        return settings;
+    }
+
+    private List<LogField> readAll() throws IOException {
+        List<LogField> records = new ArrayList<>();
+        for (Path segment : PerfLogSegments.list(directory)) {
+            PerfLogSegments.read(segment, records::add);
+        }
+        return records;
+    }
+
+    private static LogField field(String title, long startTime) {
+        return new LogField(
+                "trace",
+                "request",
+                "service",
+                5L,
+                "endTime",
+                "action",
+                startTime,
+                startTime + 5,
+                "127.0.0.1",
+                title,
+                "[\"input\"]",
+                "\"response\"",
+                "0");
+    }
+}